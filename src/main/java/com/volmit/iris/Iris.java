@@ -30,6 +30,7 @@ import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.core.nms.INMS;
 import com.volmit.iris.core.nms.v19_3.NMSBinding19_3;
 import com.volmit.iris.core.pregenerator.LazyPregenerator;
+import com.volmit.iris.core.pregenerator.PregenWorker;
 import com.volmit.iris.core.service.StudioSVC;
 import com.volmit.iris.core.tools.IrisToolbelt;
 import com.volmit.iris.engine.EnginePanic;
@@ -40,6 +41,7 @@ import com.volmit.iris.engine.platform.BukkitChunkGenerator;
 import com.volmit.iris.engine.platform.DummyChunkGenerator;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.B;
 import com.volmit.iris.util.exceptions.IrisException;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
@@ -50,6 +52,7 @@ import com.volmit.iris.util.io.InstanceState;
 import com.volmit.iris.util.io.JarScanner;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.MatterObjectHandle;
 import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.plugin.IrisService;
 import com.volmit.iris.util.plugin.Metrics;
@@ -445,6 +448,11 @@ public class Iris extends VolmitPlugin implements Listener {
             J.a(() -> PaperLib.suggestPaper(this));
             J.a(() -> IO.delete(getTemp()));
             J.a(LazyPregenerator::loadLazyGenerators, 100);
+
+            if (PregenWorker.isWorker()) {
+                J.a(PregenWorker::run, 20);
+            }
+
             J.a(this::bstats);
             J.ar(this::checkConfigHotload, 60);
             J.sr(this::tickQueue, 0);
@@ -454,6 +462,7 @@ public class Iris extends VolmitPlugin implements Listener {
             autoStartStudio();
             checkForBukkitWorlds();
             IrisToolbelt.retainMantleDataForSlice(String.class.getCanonicalName());
+            IrisToolbelt.retainMantleDataForSlice(MatterObjectHandle.class.getCanonicalName());
             IrisToolbelt.retainMantleDataForSlice(BlockData.class.getCanonicalName());
         });
     }
@@ -596,6 +605,7 @@ public class Iris extends VolmitPlugin implements Listener {
         if (configWatcher.checkModified()) {
             IrisSettings.invalidate();
             IrisSettings.get();
+            B.clearCache();
             configWatcher.checkModified();
             Iris.info("Hotloaded settings.json ");
         }
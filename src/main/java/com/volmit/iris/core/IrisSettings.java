@@ -131,15 +131,22 @@ public class IrisSettings {
     @Data
     public static class IrisSettingsConcurrency {
         public int parallelism = -1;
+        public boolean concurrentMantlePlanning = false;
+        public String pregenWorkerHeap = "4G";
+        public int pregenWorkerBasePort = 25600;
     }
 
     @Data
     public static class IrisSettingsPerformance {
         public boolean trimMantleInStudio = false;
         public int mantleKeepAlive = 30;
+        public int mantleCacheBudgetMB = 2048;
+        public String mantleEvictionPolicy = "lru";
         public int cacheSize = 4_096;
+        public int biomeTileCacheSize = 1_024;
         public int resourceLoaderCacheSize = 1_024;
         public int objectLoaderCacheSize = 4_096;
+        public int objectRotationCacheMB = 256;
         public int scriptLoaderCacheSize = 512;
     }
 
@@ -304,6 +304,22 @@ public class CommandIris implements DecreeExecutor {
         }
     }
 
+    @Decree(description = "Convert the mantle of a world to the current plate format", aliases = "upgrade-mantle")
+    public void mantleUpgrade(
+            @Param(description = "The world to convert", contextual = true)
+            World world
+    ) {
+        if (!IrisToolbelt.isIrisWorld(world)) {
+            sender().sendMessage(C.RED + "This is not an Iris world!");
+            return;
+        }
+
+        VolmitSender sender = sender();
+        Engine engine = IrisToolbelt.access(world).getEngine();
+        sender.sendMessage(C.GREEN + "Converting Tectonic Plates of " + world.getName() + "...");
+        J.a(() -> sender.sendMessage(C.GREEN + "Converted " + Form.f(engine.getMantle().getMantle().migrate()) + " Tectonic Plates"));
+    }
+
     @Decree(description = "Update the pack of a world (UNSAFE!)", name = "^world", aliases = "update-world")
     public void updateWorld(
             @Param(description = "The world to update", contextual = true)
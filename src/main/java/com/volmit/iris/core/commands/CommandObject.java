@@ -33,6 +33,7 @@ import com.volmit.iris.util.decree.annotations.Decree;
 import com.volmit.iris.util.decree.annotations.Param;
 import com.volmit.iris.util.decree.specialhandlers.ObjectHandler;
 import com.volmit.iris.util.format.C;
+import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.math.Direction;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.scheduling.Queue;
@@ -136,9 +137,11 @@ public class CommandObject implements DecreeExecutor {
     ) {
         IrisObject o = IrisData.loadAnyObject(object);
         sender().sendMessage("Object Size: " + o.getW() + " * " + o.getH() + " * " + o.getD() + "");
-        sender().sendMessage("Blocks Used: " + NumberFormat.getIntegerInstance().format(o.getBlocks().size()));
+        ObjectBlockStore store = o.getStore();
+        sender().sendMessage("Blocks Used: " + NumberFormat.getIntegerInstance().format(store.size()));
+        sender().sendMessage("Memory: " + Form.memSize(store.estimateSize(), 1) + " (" + (store.isDense() ? "dense" : "sparse") + ", " + store.getPaletteSize() + " states) vs ~" + Form.memSize(ObjectBlockStore.estimateMapSize(store.size()), 1) + " as a block map");
 
-        Queue<BlockData> queue = o.getBlocks().enqueueValues();
+        Queue<BlockData> queue = Queue.create(store.values());
         Map<Material, Set<BlockData>> unsorted = new HashMap<>();
         Map<BlockData, Integer> amounts = new HashMap<>();
         Map<Material, Integer> materials = new HashMap<>();
@@ -299,7 +302,7 @@ public class CommandObject implements DecreeExecutor {
 //            IrisObjectPlacementScaleInterpolator interpolator
     ) {
         IrisObject o = IrisData.loadAnyObject(object);
-        double maxScale = Double.max(10 - o.getBlocks().size() / 10000d, 1);
+        double maxScale = Double.max(10 - o.volume() / 10000d, 1);
         if (scale > maxScale) {
             sender().sendMessage(C.YELLOW + "Indicated scale exceeds maximum. Downscaled to maximum: " + maxScale);
             scale = maxScale;
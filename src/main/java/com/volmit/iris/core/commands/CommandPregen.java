@@ -21,12 +21,17 @@ package com.volmit.iris.core.commands;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.gui.PregeneratorJob;
 import com.volmit.iris.core.pregenerator.PregenTask;
+import com.volmit.iris.core.pregenerator.methods.HeadlessPregenMethod;
+import com.volmit.iris.core.pregenerator.methods.MultiProcessPregenMethod;
 import com.volmit.iris.core.tools.IrisToolbelt;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.object.IrisDimension;
 import com.volmit.iris.util.decree.DecreeExecutor;
 import com.volmit.iris.util.decree.annotations.Decree;
 import com.volmit.iris.util.decree.annotations.Param;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.math.Position2;
+import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.util.Vector;
 
@@ -64,6 +69,90 @@ public class CommandPregen implements DecreeExecutor {
         }
     }
 
+    @Decree(description = "Pregenerate an unloaded world straight to region files", aliases = "hl")
+    public void headless(
+            @Param(description = "The radius of the pregen in blocks", aliases = "size")
+            int radius,
+            @Param(description = "The name of the unloaded world to pregen")
+            String world,
+            @Param(description = "The dimension the world uses", aliases = "dim")
+            IrisDimension dimension,
+            @Param(description = "The seed of the world", aliases = "s")
+            long seed,
+            @Param(aliases = "middle", description = "The center location of the pregen", defaultValue = "0,0")
+            Vector center
+    ) {
+        if (Bukkit.getWorld(world) != null) {
+            sender().sendMessage(C.RED + "The world " + world + " is loaded. Unload it before pregenerating headless.");
+            return;
+        }
+
+        try {
+            Engine engine = IrisToolbelt.createHeadlessEngine(Bukkit.getWorldContainer(), world, dimension, seed);
+
+            if (engine == null) {
+                sender().sendMessage(C.RED + "The pack installed in " + world + " has no dimension " + dimension.getLoadKey());
+                return;
+            }
+
+            radius = Math.max(radius, 1024);
+            int s = (radius >> 9 + 1) * 2;
+            IrisToolbelt.pregenerate(PregenTask
+                    .builder()
+                    .center(new Position2(center))
+                    .width(s)
+                    .height(s)
+                    .build(), new HeadlessPregenMethod(engine), engine);
+            String msg = C.GREEN + "Headless pregen started in " + C.GOLD + world + C.GREEN + " of " + C.GOLD + (radius * 2) + C.GREEN + " by " + C.GOLD + (radius * 2) + C.GREEN + " blocks from " + C.GOLD + center.getX() + "," + center.getZ();
+            sender().sendMessage(msg);
+            Iris.info(msg);
+        } catch (Throwable e) {
+            sender().sendMessage(C.RED + "Epic fail. See console.");
+            Iris.reportError(e);
+            e.printStackTrace();
+        }
+    }
+
+    @Decree(description = "Pregenerate an unloaded world with several server processes", aliases = "mp")
+    public void multi(
+            @Param(description = "The radius of the pregen in blocks", aliases = "size")
+            int radius,
+            @Param(description = "The name of the unloaded world to pregen")
+            String world,
+            @Param(description = "The dimension the world uses", aliases = "dim")
+            IrisDimension dimension,
+            @Param(description = "The seed of the world", aliases = "s")
+            long seed,
+            @Param(description = "The amount of worker processes", aliases = "w", defaultValue = "2")
+            int workers,
+            @Param(aliases = "middle", description = "The center location of the pregen", defaultValue = "0,0")
+            Vector center
+    ) {
+        if (Bukkit.getWorld(world) != null) {
+            sender().sendMessage(C.RED + "The world " + world + " is loaded. Unload it before pregenerating with workers.");
+            return;
+        }
+
+        try {
+            radius = Math.max(radius, 1024);
+            int s = (radius >> 9 + 1) * 2;
+            PregenTask task = PregenTask
+                    .builder()
+                    .center(new Position2(center))
+                    .width(s)
+                    .height(s)
+                    .build();
+            IrisToolbelt.pregenerate(task, new MultiProcessPregenMethod(Bukkit.getWorldContainer(), world, dimension, seed, task, workers), null);
+            String msg = C.GREEN + "Multi process pregen started in " + C.GOLD + world + C.GREEN + " with " + C.GOLD + workers + C.GREEN + " workers of " + C.GOLD + (radius * 2) + C.GREEN + " by " + C.GOLD + (radius * 2) + C.GREEN + " blocks from " + C.GOLD + center.getX() + "," + center.getZ();
+            sender().sendMessage(msg);
+            Iris.info(msg);
+        } catch (Throwable e) {
+            sender().sendMessage(C.RED + "Epic fail. See console.");
+            Iris.reportError(e);
+            e.printStackTrace();
+        }
+    }
+
     @Decree(description = "Stop the active pregeneration task", aliases = "x")
     public void stop() {
         if (PregeneratorJob.shutdownInstance()) {
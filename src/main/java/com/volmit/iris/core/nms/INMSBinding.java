@@ -27,6 +27,7 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.generator.ChunkGenerator;
 
@@ -90,4 +91,17 @@ public interface INMSBinding {
     MCAPaletteAccess createPalette();
 
     void injectBiomesFromMantle(Chunk e, Mantle mantle);
+
+    /**
+     * Write a whole 16x16x16 section of a generating chunk at once
+     *
+     * @param chunk   the chunk data handed to the generator
+     * @param section the section index, counted up from the min height
+     * @param states  4096 palette ids indexed (y << 8) | (z << 4) | x, zero leaves the block untouched
+     * @param palette the palette, indexed by id
+     * @return false if the section could not be written this way and should go through the api
+     */
+    default boolean setSection(ChunkGenerator.ChunkData chunk, int section, int[] states, BlockData[] palette) {
+        return false;
+    }
 }
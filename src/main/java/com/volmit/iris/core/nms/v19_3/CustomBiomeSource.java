@@ -2,12 +2,14 @@ package com.volmit.iris.core.nms.v19_3;
 
 import com.mojang.serialization.Codec;
 import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.data.cache.AtomicCache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisBiomeCustom;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.math.RNG;
+import lombok.Getter;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -35,6 +37,8 @@ public class CustomBiomeSource extends BiomeSource {
     private final AtomicCache<RegistryAccess> registryAccess = new AtomicCache<>();
     private final RNG rng;
     private final KMap<String, Holder<Biome>> customBiomes;
+    @Getter
+    private final QuartBiomeTiles tiles;
 
     public CustomBiomeSource(long seed, Engine engine, World world) {
         super(getAllBiomes(
@@ -48,6 +52,7 @@ public class CustomBiomeSource extends BiomeSource {
         this.biomeRegistry = ((CraftWorld) world).getHandle().registryAccess().registry(Registries.BIOME).orElse(null);
         this.rng = new RNG(engine.getSeedManager().getBiome());
         this.customBiomes = fillCustomBiomes(biomeCustomRegistry, engine);
+        this.tiles = new QuartBiomeTiles(engine, IrisSettings.get().getPerformance().getBiomeTileCacheSize(), this::resolveTile);
     }
 
     private static List<Holder<Biome>> getAllBiomes(Registry<Biome> customRegistry, Registry<Biome> registry, Engine engine) {
@@ -139,8 +144,36 @@ public class CustomBiomeSource extends BiomeSource {
 
     @Override
     public Holder<Biome> getNoiseBiome(int x, int y, int z, Climate.Sampler sampler) {
+        Holder<Biome> b = tiles.get(x, y, z);
+
+        if (b != null) {
+            return b;
+        }
+
+        return resolve(engine.getComplex().getTrueBiomeStream().get(x << 2, z << 2), x, y, z);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Holder<Biome>[] resolveTile(int x, int z) {
+        Holder<Biome>[] tile = (Holder<Biome>[]) new Holder[tiles.getLength()];
+
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                int qx = (x << 2) + i;
+                int qz = (z << 2) + j;
+                IrisBiome ib = engine.getComplex().getTrueBiomeStream().get(qx << 2, qz << 2);
+
+                for (int k = 0; k < tiles.getHeight(); k++) {
+                    tile[QuartBiomeTiles.index(i, k, j)] = resolve(ib, qx, tiles.getMinQuart() + k, qz);
+                }
+            }
+        }
+
+        return tile;
+    }
+
+    private Holder<Biome> resolve(IrisBiome ib, int x, int y, int z) {
         int m = (y - engine.getMinHeight()) << 2;
-        IrisBiome ib = engine.getComplex().getTrueBiomeStream().get(x << 2, z << 2);
         if (ib.isCustom()) {
             return customBiomes.get(ib.getCustomBiome(rng, x << 2, m, z << 2).getId());
         } else {
@@ -43,6 +43,9 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
 import org.bukkit.block.data.BlockData;
@@ -50,6 +53,7 @@ import org.bukkit.craftbukkit.v1_19_R2.CraftChunk;
 import org.bukkit.craftbukkit.v1_19_R2.CraftServer;
 import org.bukkit.craftbukkit.v1_19_R2.CraftWorld;
 import org.bukkit.craftbukkit.v1_19_R2.block.data.CraftBlockData;
+import org.bukkit.craftbukkit.v1_19_R2.generator.CraftChunkData;
 import org.bukkit.entity.Entity;
 import org.bukkit.generator.ChunkGenerator;
 import org.jetbrains.annotations.NotNull;
@@ -436,6 +440,23 @@ public class NMSBinding19_3 implements INMSBinding {
     @Override
     public void injectBiomesFromMantle(Chunk e, Mantle mantle) {
         LevelChunk chunk = ((CraftChunk) e).getHandle();
+
+        if (((CraftWorld) e.getWorld()).getHandle().getChunkSource().getGenerator().getBiomeSource() instanceof CustomBiomeSource source) {
+            QuartBiomeTiles tiles = source.getTiles();
+            Holder<net.minecraft.world.level.biome.Biome>[] tile = tiles.getTile(e.getX(), e.getZ());
+
+            for (int y = 0; y < tiles.getHeight(); y++) {
+                for (int z = 0; z < 4; z++) {
+                    for (int x = 0; x < 4; x++) {
+                        chunk.setBiome((e.getX() << 2) + x, tiles.getMinQuart() + y, (e.getZ() << 2) + z, tile[QuartBiomeTiles.index(x, y, z)]);
+                    }
+                }
+            }
+
+            chunk.setUnsaved(true);
+            return;
+        }
+
         AtomicInteger c = new AtomicInteger();
         AtomicInteger r = new AtomicInteger();
         mantle.iterateChunk(e.getX(), e.getZ(), MatterBiomeInject.class, (x, y, z, b) -> {
@@ -450,4 +471,60 @@ public class NMSBinding19_3 implements INMSBinding {
             }
         });
     }
+
+    @Override
+    public boolean setSection(ChunkGenerator.ChunkData chunk, int section, int[] states, BlockData[] palette) {
+        if (!(chunk instanceof CraftChunkData c)) {
+            return false;
+        }
+
+        ChunkAccess access = c.getHandle();
+
+        if (access == null || section < 0 || section >= access.getSectionsCount()) {
+            return false;
+        }
+
+        BlockState[] p = new BlockState[palette.length];
+
+        for (int i = 1; i < palette.length; i++) {
+            if (palette[i] != null) {
+                p[i] = ((CraftBlockData) palette[i]).getState();
+
+                if (p[i].hasBlockEntity()) {
+                    for (int j : states) {
+                        if (j == i) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+
+        LevelChunkSection s = access.getSection(section);
+        Heightmap oceanFloor = access.getOrCreateHeightmapUnprimed(Heightmap.Types.OCEAN_FLOOR_WG);
+        Heightmap worldSurface = access.getOrCreateHeightmapUnprimed(Heightmap.Types.WORLD_SURFACE_WG);
+        int minY = access.getMinBuildHeight() + (section << 4);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        for (int i = 0; i < 4096; i++) {
+            if (states[i] == 0) {
+                continue;
+            }
+
+            int x = i & 15;
+            int y = i >> 8;
+            int z = (i >> 4) & 15;
+            BlockState state = p[states[i]];
+            s.setBlockState(x, y, z, state, false);
+            oceanFloor.update(x, minY + y, z, state);
+            worldSurface.update(x, minY + y, z, state);
+
+            if (state.getLightEmission() != 0 && access instanceof ProtoChunk proto) {
+                proto.addLight(pos.set((access.getPos().x << 4) + x, minY + y, (access.getPos().z << 4) + z));
+            }
+        }
+
+        s.recalcBlockCounts();
+        return true;
+    }
 }
@@ -0,0 +1,140 @@
+package com.volmit.iris.core.nms.v19_3;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.MeteredCache;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.scheduling.ChronoLatch;
+import lombok.Getter;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Biomes of whole chunks at quart (4x4x4 blocks) resolution. Vanilla asks the biome source for
+ * single quarts far more often than it generates chunks (structure checks, spawning, locate), so
+ * the tile of a chunk is resolved once and every later query is an array read.
+ */
+public class QuartBiomeTiles implements MeteredCache {
+    private final Engine engine;
+    private final KCache<Long, Holder<Biome>[]> tiles;
+    private final long max;
+    @Getter
+    private final int minQuart;
+    @Getter
+    private final int height;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final ChronoLatch reportLatch = new ChronoLatch(60000, false);
+
+    public QuartBiomeTiles(Engine engine, int max, TileResolver resolver) {
+        this.engine = engine;
+        this.max = max;
+        this.minQuart = engine.getMinHeight() >> 2;
+        this.height = engine.getHeight() >> 2;
+        this.tiles = new KCache<>((k) -> {
+            misses.increment();
+            return resolver.resolve(Cache.keyX(k), Cache.keyZ(k));
+        }, max);
+        Iris.service(PreservationSVC.class).registerCache(this);
+    }
+
+    /**
+     * @return the index of a quart in a tile
+     */
+    public static int index(int x, int y, int z) {
+        return (y << 4) | (z << 2) | x;
+    }
+
+    /**
+     * @return the amount of quarts in a tile
+     */
+    public int getLength() {
+        return height << 4;
+    }
+
+    /**
+     * Get the tile of a chunk, resolving it if it is not cached
+     *
+     * @param x the chunk x
+     * @param z the chunk z
+     * @return the tile, see {@link #index(int, int, int)}
+     */
+    public Holder<Biome>[] getTile(int x, int z) {
+        return tiles.get(Cache.key(x, z));
+    }
+
+    /**
+     * Get the biome of a quart
+     *
+     * @param x the quart x
+     * @param y the quart y
+     * @param z the quart z
+     * @return the biome or null if y is outside the world
+     */
+    public Holder<Biome> get(int x, int y, int z) {
+        int qy = y - minQuart;
+
+        if (qy < 0 || qy >= height) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        Holder<Biome> b = getTile(x >> 2, z >> 2)[index(x & 3, qy, z & 3)];
+        nanos.add(System.nanoTime() - start);
+        queries.increment();
+
+        if (reportLatch.flip()) {
+            Iris.debug("Biome tiles of " + engine.getWorld().name() + ": " + Form.pc(getHitRate(), 1) + " hit rate, "
+                    + Form.f(getAverageNanos()) + "ns per query, " + Form.f(getSize()) + " tiles cached");
+        }
+
+        return b;
+    }
+
+    /**
+     * @return the fraction of quart queries that did not have to resolve a tile
+     */
+    public double getHitRate() {
+        long q = queries.sum();
+        return q == 0 ? 0 : 1D - Math.min(1D, (double) misses.sum() / (double) q);
+    }
+
+    /**
+     * @return the average cost of a quart query in nanoseconds
+     */
+    public long getAverageNanos() {
+        long q = queries.sum();
+        return q == 0 ? 0 : nanos.sum() / q;
+    }
+
+    @Override
+    public long getSize() {
+        return tiles.getSize();
+    }
+
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return tiles;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return max;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return engine.isClosed();
+    }
+
+    @FunctionalInterface
+    public interface TileResolver {
+        Holder<Biome>[] resolve(int x, int z);
+    }
+}
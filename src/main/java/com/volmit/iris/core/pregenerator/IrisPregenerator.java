@@ -19,6 +19,7 @@
 package com.volmit.iris.core.pregenerator;
 
 import com.volmit.iris.Iris;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.mantle.Mantle;
@@ -52,6 +53,7 @@ public class IrisPregenerator {
     private final ChronoLatch minuteLatch;
     private final AtomicReference<String> currentGeneratorMethod;
     private final KSet<Position2> generatedRegions;
+    private final PregenJournal journal;
     private final KSet<Position2> retry;
     private final KSet<Position2> net;
     private final ChronoLatch cl;
@@ -65,6 +67,8 @@ public class IrisPregenerator {
         this.paused = new AtomicBoolean(false);
         this.task = task;
         this.generator = generator;
+        Mantle mantle = generator.getMantle();
+        journal = new PregenJournal(mantle == null ? null : PregenJournal.file(mantle.getDataFolder().getParentFile(), task));
         retry = new KSet<>();
         net = new KSet<>();
         currentGeneratorMethod = new AtomicReference<>("Void");
@@ -101,7 +105,9 @@ public class IrisPregenerator {
                         eta, M.ms() - startTime.get(), currentGeneratorMethod.get());
 
                 if (cl.flip()) {
-                    Iris.info("Pregen: " + Form.f(generated.get()) + " of " + Form.f(totalChunks.get()) + " (" + Form.pc((double) generated.get() / (double) totalChunks.get(), 0) + ") " + Form.f((int) chunksPerSecond.getAverage()) + "/s ETA: " + Form.duration((double) eta, 2));
+                    Mantle mantle = getMantle();
+                    Iris.info("Pregen: " + Form.f(generated.get()) + " of " + Form.f(totalChunks.get()) + " (" + Form.pc((double) generated.get() / (double) totalChunks.get(), 0) + ") " + Form.f((int) chunksPerSecond.getAverage()) + "/s ETA: " + Form.duration((double) eta, 2)
+                            + (mantle == null ? "" : " Plate Waits: " + Form.f(mantle.getPlateWaits().sum()) + " (" + Form.f(mantle.getPrefetchWaits().sum()) + " on prefetch)"));
                 }
 
                 return 1000;
@@ -121,12 +127,46 @@ public class IrisPregenerator {
     public void start() {
         init();
         ticker.start();
+        verifyJournal();
         checkRegions();
-        task.iterateRegions((x, z) -> visitRegion(x, z, true));
-        task.iterateRegions((x, z) -> visitRegion(x, z, false));
+        KList<Position2> order = new KList<>();
+        task.iterateRegions((x, z) -> order.add(new Position2(x, z)));
+
+        for (int i = 0; i < order.size(); i++) {
+            visitRegion(order.get(i).getX(), order.get(i).getZ(), true, i + 1 < order.size() ? order.get(i + 1) : null);
+        }
+
+        for (int i = 0; i < order.size(); i++) {
+            visitRegion(order.get(i).getX(), order.get(i).getZ(), false, i + 1 < order.size() ? order.get(i + 1) : null);
+        }
+
         shutdown();
     }
 
+    /**
+     * Read the plates of the region after the one being generated ahead of time
+     *
+     * @param next the next region in the spiral (or null if this is the last one)
+     */
+    private void prefetch(Position2 next) {
+        Mantle mantle = getMantle();
+
+        if (mantle == null || mantle.isClosed()) {
+            return;
+        }
+
+        if (next == null) {
+            mantle.getPrefetcher().clear("pregen");
+            return;
+        }
+
+        mantle.getPrefetcher().predict("pregen", new KList<>(next));
+    }
+
+    /**
+     * Let the method look at every region once up front. Regions are never re-checked after each
+     * visit, finished work is tracked incrementally through generatedRegions and the journal.
+     */
     private void checkRegions() {
         task.iterateRegions(this::checkRegion);
     }
@@ -137,14 +177,20 @@ public class IrisPregenerator {
     }
 
     private void shutdown() {
+        prefetch(null);
         listener.onSaving();
-        generator.close();
+        journal.checkpoint(generator::close);
+        journal.close();
         ticker.interrupt();
         listener.onClose();
-        getMantle().trim(0);
+        Mantle mantle = getMantle();
+
+        if (mantle != null && !mantle.isClosed()) {
+            mantle.trim(0);
+        }
     }
 
-    private void visitRegion(int x, int z, boolean regions) {
+    private void visitRegion(int x, int z, boolean regions, Position2 next) {
         while (paused.get() && !shutdown.get()) {
             J.sleep(50);
         }
@@ -160,39 +206,77 @@ public class IrisPregenerator {
             return;
         }
 
+        if (journal.isRegionDone(x, z)) {
+            generatedRegions.add(pos);
+            generated.addAndGet(1024);
+            return;
+        }
+
         currentGeneratorMethod.set(generator.getMethod(x, z));
         boolean hit = false;
-        if (generator.supportsRegions(x, z, listener) && regions) {
+        boolean partial = journal.countChunks(x, z) > 0;
+        if (generator.supportsRegions(x, z, listener) && regions && !partial) {
             hit = true;
+            prefetch(next);
             listener.onRegionGenerating(x, z);
             generator.generateRegion(x, z, listener);
-        } else if (!regions) {
+        } else if (!regions || partial) {
             hit = true;
+            prefetch(next);
             listener.onRegionGenerating(x, z);
             PregenTask.iterateRegion(x, z, (xx, zz) -> {
                 while (paused.get() && !shutdown.get()) {
                     J.sleep(50);
                 }
 
+                if (journal.isChunkDone(xx, zz)) {
+                    generated.addAndGet(1);
+                    return;
+                }
+
                 generator.generateChunk(xx, zz, listener);
             });
         }
 
+        if (hit && generator.isRegionFailed(x, z)) {
+            generated.addAndGet(-journal.forgetRegion(x, z));
+            listener.onRegionSkipped(x, z);
+            Iris.warn("Pregen region " + x + " " + z + " failed and was not saved, it will be retried");
+            return;
+        }
+
         if (hit) {
             listener.onRegionGenerated(x, z);
 
             if (saveLatch.flip()) {
                 listener.onSaving();
-                generator.save();
+                journal.checkpoint(generator::flush);
             }
 
             generatedRegions.add(pos);
-            checkRegions();
+            journal.markRegion(x, z);
+        }
+    }
+
+    /**
+     * Forget journaled regions the method can't find on disk (killed before they were written)
+     */
+    private void verifyJournal() {
+        AtomicInteger lost = new AtomicInteger();
+        task.iterateRegions((x, z) -> {
+            if ((journal.isRegionDone(x, z) || journal.countChunks(x, z) > 0) && !generator.isRegionPersisted(x, z)) {
+                journal.forgetRegion(x, z);
+                lost.incrementAndGet();
+            }
+        });
+
+        if (lost.get() > 0) {
+            Iris.warn("Pregen journal listed " + lost.get() + " regions as done that are not on disk, generating them again");
         }
     }
 
     private void checkRegion(int x, int z) {
-        if (generatedRegions.contains(new Position2(x, z))) {
+        if (generatedRegions.contains(new Position2(x, z)) || journal.isRegionDone(x, z)) {
             return;
         }
 
@@ -223,6 +307,7 @@ public class IrisPregenerator {
             public void onChunkGenerated(int x, int z) {
                 listener.onChunkGenerated(x, z);
                 generated.addAndGet(1);
+                journal.markChunk(x, z);
             }
 
             @Override
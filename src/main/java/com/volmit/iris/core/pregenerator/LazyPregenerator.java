@@ -19,24 +19,25 @@ import org.bukkit.event.world.WorldUnloadEvent;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class LazyPregenerator extends Thread implements Listener {
     private final LazyPregenJob job;
     private final File destination;
     private final int maxPosition;
     private final World world;
-    private final long rate;
     private final ChronoLatch latch;
+    private final LazyRateController controller;
 
     public LazyPregenerator(LazyPregenJob job, File destination) {
         this.job = job;
         this.destination = destination;
-        this.maxPosition = new Spiraler(job.getRadiusBlocks() * 2, job.getRadiusBlocks() * 2, (x, z) -> {
-        }).count();
+        this.maxPosition = (int) Math.min(Integer.MAX_VALUE, 4L * job.getRadiusBlocks() * job.getRadiusBlocks());
         this.world = Bukkit.getWorld(job.getWorld());
-        this.rate = Math.round((1D / (job.chunksPerMinute / 60D)) * 1000D);
         this.latch = new ChronoLatch(60000);
+        this.controller = new LazyRateController(job.getChunksPerMinute(),
+                job.isFixedRate() ? job.getChunksPerMinute() : job.getMaxChunksPerMinute() > 0 ? job.getMaxChunksPerMinute() : job.getChunksPerMinute() * 16D,
+                job.getHeadroom() > 0 ? job.getHeadroom() : 0.2,
+                job.getMaxOutstanding() > 0 ? job.getMaxOutstanding() : 64);
     }
 
     public LazyPregenerator(File file) throws IOException {
@@ -67,11 +68,17 @@ public class LazyPregenerator extends Thread implements Listener {
     }
 
     public void run() {
+        if (!job.isFixedRate()) {
+            controller.start();
+        }
+
         while (!interrupted()) {
-            J.sleep(rate);
+            J.sleep(Math.round(60000D / (job.isFixedRate() ? job.getChunksPerMinute() : controller.update())));
             tick();
         }
 
+        controller.stop();
+
         try {
             saveNow();
         } catch (IOException e) {
@@ -82,7 +89,9 @@ public class LazyPregenerator extends Thread implements Listener {
     public void tick() {
         if (latch.flip()) {
             save();
-            Iris.info("LazyGen: " + world.getName() + " RTT: " + Form.duration((Math.pow((job.radiusBlocks / 16D), 2) / job.chunksPerMinute) * 60 * 1000, 2));
+            Iris.info("LazyGen: " + world.getName() + " " + Form.pc(getProgress(), 2) + " at " + Form.f((int) getChunksPerMinute()) + "/min"
+                    + " MSPT: " + Form.f(controller.getMspt(), 1) + " Waiting: " + controller.getOutstanding()
+                    + " RTT: " + Form.duration((Math.pow((job.radiusBlocks / 16D), 2) / getChunksPerMinute()) * 60 * 1000, 2));
         }
 
         if (job.getPosition() >= maxPosition) {
@@ -103,7 +112,11 @@ public class LazyPregenerator extends Thread implements Listener {
 
     private void tickGenerate(Position2 chunk) {
         if (PaperLib.isPaper()) {
-            PaperLib.getChunkAtAsync(world, chunk.getX(), chunk.getZ(), true).thenAccept((i) -> Iris.verbose("Generated Async " + chunk));
+            controller.begin();
+            PaperLib.getChunkAtAsync(world, chunk.getX(), chunk.getZ(), true).whenComplete((i, e) -> {
+                controller.done();
+                Iris.verbose("Generated Async " + chunk);
+            });
         } else {
             J.s(() -> world.getChunkAt(chunk.getX(), chunk.getZ()));
             Iris.verbose("Generated " + chunk);
@@ -116,19 +129,21 @@ public class LazyPregenerator extends Thread implements Listener {
     }
 
     public Position2 getChunk(int position) {
-        int p = -1;
-        AtomicInteger xx = new AtomicInteger();
-        AtomicInteger zz = new AtomicInteger();
-        Spiraler s = new Spiraler(job.getRadiusBlocks() * 2, job.getRadiusBlocks() * 2, (x, z) -> {
-            xx.set(x);
-            zz.set(z);
-        });
+        return Spiraler.get(Math.min(position, maxPosition - 1));
+    }
 
-        while (s.hasNext() && p++ < position) {
-            s.next();
-        }
+    /**
+     * @return the fraction of the spiral generated so far
+     */
+    public double getProgress() {
+        return Math.min(1D, (double) job.getPosition() / (double) maxPosition);
+    }
 
-        return new Position2(xx.get(), zz.get());
+    /**
+     * @return the current rate in chunks per minute
+     */
+    public double getChunksPerMinute() {
+        return job.isFixedRate() ? job.getChunksPerMinute() : controller.getRate();
     }
 
     public void save() {
@@ -159,5 +174,13 @@ public class LazyPregenerator extends Thread implements Listener {
         private int radiusBlocks = 5000;
         @Builder.Default
         private int position = 0;
+        @Builder.Default
+        private boolean fixedRate = false; // Always use chunksPerMinute instead of adapting to the server load
+        @Builder.Default
+        private int maxChunksPerMinute = 0; // 0 is 16x chunksPerMinute
+        @Builder.Default
+        private double headroom = 0.2; // Fraction of the tick budget to keep free
+        @Builder.Default
+        private int maxOutstanding = 64; // Chunk requests allowed to wait before backing off
     }
 }
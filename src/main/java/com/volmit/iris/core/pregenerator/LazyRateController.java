@@ -0,0 +1,122 @@
+package com.volmit.iris.core.pregenerator;
+
+import com.volmit.iris.util.math.RollingSequence;
+import com.volmit.iris.util.scheduling.ChronoLatch;
+import com.volmit.iris.util.scheduling.J;
+import org.bukkit.Bukkit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scales the lazy pregen rate to what the server can take. The tick time is sampled every tick,
+ * the rate grows slowly while ticks stay within the budget left by the headroom and halves as soon
+ * as they do not, or when too many chunk requests are still waiting.
+ */
+public class LazyRateController {
+    private static final double TICK_MS = 50;
+    private static final Method AVERAGE_TICK_TIME = findAverageTickTime();
+    private final RollingSequence mspt;
+    private final AtomicInteger outstanding;
+    private final ChronoLatch adjustLatch;
+    private final double min;
+    private final double max;
+    private final double headroom;
+    private final int maxOutstanding;
+    private volatile double rate;
+    private long lastTick;
+    private int task;
+
+    /**
+     * @param initial        the starting rate in chunks per minute
+     * @param max            the highest rate in chunks per minute
+     * @param headroom       the fraction of the tick budget to keep free (0.2 keeps ticks under 40ms)
+     * @param maxOutstanding the most chunk requests allowed to wait before backing off
+     */
+    public LazyRateController(double initial, double max, double headroom, int maxOutstanding) {
+        this.min = 1;
+        this.max = Math.max(max, initial);
+        this.rate = Math.max(initial, min);
+        this.headroom = headroom;
+        this.maxOutstanding = maxOutstanding;
+        this.mspt = new RollingSequence(20);
+        this.outstanding = new AtomicInteger(0);
+        this.adjustLatch = new ChronoLatch(1000);
+        this.task = -1;
+    }
+
+    private static Method findAverageTickTime() {
+        try {
+            return Bukkit.getServer().getClass().getMethod("getAverageTickTime");
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    public void start() {
+        lastTick = System.nanoTime();
+        task = J.sr(this::sample, 1);
+    }
+
+    public void stop() {
+        if (task != -1) {
+            J.csr(task);
+            task = -1;
+        }
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        double interval = (now - lastTick) / 1000000D;
+        lastTick = now;
+
+        if (AVERAGE_TICK_TIME != null) {
+            try {
+                mspt.put((double) AVERAGE_TICK_TIME.invoke(Bukkit.getServer()));
+                return;
+            } catch (Throwable ignored) {
+
+            }
+        }
+
+        // Without the real tick time only lag is visible, a tick taking longer than its slot
+        mspt.put(interval <= TICK_MS * 1.05 ? 0 : interval);
+    }
+
+    /**
+     * Adjust the rate (at most once a second) and return it
+     *
+     * @return the rate in chunks per minute
+     */
+    public double update() {
+        if (adjustLatch.flip()) {
+            if (mspt.getAverage() > TICK_MS * (1D - headroom) || outstanding.get() > maxOutstanding) {
+                rate = Math.max(min, rate / 2D);
+            } else {
+                rate = Math.min(max, rate + Math.max(1D, rate * 0.1D));
+            }
+        }
+
+        return rate;
+    }
+
+    public void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    public void done() {
+        outstanding.decrementAndGet();
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getMspt() {
+        return mspt.getAverage();
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.pregenerator;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.collection.KSet;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Append only record of finished pregen work for a world. Finished regions are stored whole,
+ * regions that were left halfway keep a bitmap of their finished chunks.
+ * <p>
+ * Work is only recorded once the method has saved it, see {@link #checkpoint(Runnable)}, so a
+ * crash can lose journal entries but never journal chunks that are not on disk. A torn record at
+ * the end of the file (crash mid write) is dropped on load. On open the journal is compacted into
+ * one record per region.
+ */
+public class PregenJournal {
+    private static final int REGION = 0;
+    private static final int CHUNK = 1;
+    private static final int BITMAP = 2;
+    private final File file;
+    private final KSet<Long> regions;
+    private final KMap<Long, long[]> chunks;
+    private KList<long[]> pending;
+    private FileOutputStream fos;
+    private DataOutputStream out;
+
+    /**
+     * Open (or create) a journal
+     *
+     * @param file the journal file, or null to only track work in memory
+     */
+    public PregenJournal(File file) {
+        this.file = file;
+        this.regions = new KSet<>();
+        this.chunks = new KMap<>();
+        this.pending = new KList<>();
+
+        if (file == null) {
+            return;
+        }
+
+        try {
+            if (file.exists()) {
+                read(file);
+            } else {
+                file.getParentFile().mkdirs();
+            }
+
+            compact();
+            Iris.info("Pregen journal: " + regions.size() + " regions and " + chunks.size() + " partial regions already done");
+            fos = new FileOutputStream(file, true);
+            out = new DataOutputStream(new BufferedOutputStream(fos));
+        } catch (IOException e) {
+            Iris.error("Failed to open pregen journal " + file.getPath() + ", progress will not be resumable");
+            Iris.reportError(e);
+            e.printStackTrace();
+            out = null;
+        }
+    }
+
+    /**
+     * Read a journal another process is still appending to, without compacting or writing it
+     *
+     * @param file the journal file
+     * @return the journal as of now, only tracking in memory
+     */
+    public static PregenJournal snapshot(File file) {
+        PregenJournal j = new PregenJournal(null);
+
+        if (file.exists()) {
+            try {
+                j.read(file);
+            } catch (IOException e) {
+                Iris.reportError(e);
+            }
+        }
+
+        return j;
+    }
+
+    /**
+     * Get the journal of a task. Each task gets its own journal keyed by the regions it visits,
+     * so a pregen with another radius or center never inherits the progress of an older one.
+     *
+     * @param world the world folder
+     * @param task  the pregen task
+     * @return the journal file for this task
+     */
+    public static File file(File world, PregenTask task) {
+        long[] key = {0xcbf29ce484222325L};
+        task.iterateRegions((x, z) -> key[0] = (key[0] ^ Cache.key(x, z)) * 0x100000001b3L);
+        return new File(world, "iris/pregen-" + Long.toHexString(key[0]) + ".journal");
+    }
+
+    private static int bit(int x, int z) {
+        return ((z & 31) << 5) | (x & 31);
+    }
+
+    public synchronized boolean isRegionDone(int x, int z) {
+        return regions.contains(Cache.key(x, z));
+    }
+
+    public synchronized boolean isChunkDone(int x, int z) {
+        if (regions.contains(Cache.key(x >> 5, z >> 5))) {
+            return true;
+        }
+
+        long[] b = chunks.get(Cache.key(x >> 5, z >> 5));
+        int i = bit(x, z);
+        return b != null && (b[i >> 6] & (1L << (i & 63))) != 0;
+    }
+
+    /**
+     * @return the amount of finished chunks in a region
+     */
+    public synchronized int countChunks(int x, int z) {
+        if (regions.contains(Cache.key(x, z))) {
+            return 1024;
+        }
+
+        long[] b = chunks.get(Cache.key(x, z));
+
+        if (b == null) {
+            return 0;
+        }
+
+        int c = 0;
+
+        for (long i : b) {
+            c += Long.bitCount(i);
+        }
+
+        return c;
+    }
+
+    public synchronized void markChunk(int x, int z) {
+        pending.add(new long[]{CHUNK, x, z});
+    }
+
+    public synchronized void markRegion(int x, int z) {
+        pending.add(new long[]{REGION, x, z});
+    }
+
+    /**
+     * Forget all finished work in a region, including work not checkpointed yet, so it is
+     * generated again. This is only kept in memory, the region is journaled again once it is
+     * finished.
+     *
+     * @param x the region x
+     * @param z the region z
+     * @return the amount of chunks that were waiting for the next checkpoint and are now dropped
+     */
+    public synchronized int forgetRegion(int x, int z) {
+        regions.remove(Cache.key(x, z));
+        chunks.remove(Cache.key(x, z));
+        int dropped = 0;
+
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            long[] r = pending.get(i);
+
+            if (r[0] == REGION && r[1] == x && r[2] == z) {
+                pending.remove(i);
+            } else if (r[0] == CHUNK && ((int) r[1]) >> 5 == x && ((int) r[2]) >> 5 == z) {
+                pending.remove(i);
+                dropped++;
+            }
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Save work through the given action, then journal everything that was finished before it
+     * started and force it to disk
+     *
+     * @param save the action making finished work durable
+     */
+    public void checkpoint(Runnable save) {
+        KList<long[]> batch;
+
+        synchronized (this) {
+            batch = pending;
+            pending = new KList<>();
+        }
+
+        save.run();
+
+        synchronized (this) {
+            for (long[] i : batch) {
+                apply((int) i[0], (int) i[1], (int) i[2], null);
+            }
+
+            if (out == null) {
+                return;
+            }
+
+            try {
+                for (long[] i : batch) {
+                    out.writeByte((int) i[0]);
+                    out.writeInt((int) i[1]);
+                    out.writeInt((int) i[2]);
+                }
+
+                out.flush();
+                fos.getFD().sync();
+            } catch (IOException e) {
+                Iris.error("Failed to write pregen journal " + file.getPath());
+                Iris.reportError(e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public synchronized void close() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            Iris.reportError(e);
+            e.printStackTrace();
+        }
+
+        out = null;
+    }
+
+    private void apply(int type, int x, int z, long[] bitmap) {
+        switch (type) {
+            case REGION -> {
+                regions.add(Cache.key(x, z));
+                chunks.remove(Cache.key(x, z));
+            }
+            case CHUNK -> {
+                if (!regions.contains(Cache.key(x >> 5, z >> 5))) {
+                    int i = bit(x, z);
+                    chunks.computeIfAbsent(Cache.key(x >> 5, z >> 5), (k) -> new long[16])[i >> 6] |= 1L << (i & 63);
+                }
+            }
+            case BITMAP -> {
+                if (!regions.contains(Cache.key(x, z))) {
+                    long[] b = chunks.computeIfAbsent(Cache.key(x, z), (k) -> new long[16]);
+
+                    for (int i = 0; i < 16; i++) {
+                        b[i] |= bitmap[i];
+                    }
+                }
+            }
+            default -> throw new IllegalStateException("Unknown pregen journal record " + type);
+        }
+    }
+
+    private void read(File file) throws IOException {
+        try (DataInputStream din = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int type = din.read();
+
+                if (type < 0) {
+                    break;
+                }
+
+                int x = din.readInt();
+                int z = din.readInt();
+                long[] bitmap = null;
+
+                if (type == BITMAP) {
+                    bitmap = new long[16];
+
+                    for (int i = 0; i < 16; i++) {
+                        bitmap[i] = din.readLong();
+                    }
+                }
+
+                apply(type, x, z, bitmap);
+            }
+        } catch (EOFException | IllegalStateException e) {
+            if (this.file != null) {
+                Iris.warn("Dropped a partial record at the end of the pregen journal " + file.getPath());
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try (FileOutputStream f = new FileOutputStream(tmp); DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(f))) {
+            for (Long i : regions) {
+                dos.writeByte(REGION);
+                dos.writeInt(Cache.keyX(i));
+                dos.writeInt(Cache.keyZ(i));
+            }
+
+            for (Long i : chunks.k()) {
+                dos.writeByte(BITMAP);
+                dos.writeInt(Cache.keyX(i));
+                dos.writeInt(Cache.keyZ(i));
+
+                for (long j : chunks.get(i)) {
+                    dos.writeLong(j);
+                }
+            }
+
+            dos.flush();
+            f.getFD().sync();
+        }
+
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
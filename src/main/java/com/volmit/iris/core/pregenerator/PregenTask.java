@@ -41,6 +41,8 @@ public class PregenTask {
     private int width = 1;
     @Builder.Default
     private int height = 1;
+    @Builder.Default
+    private KList<Position2> regions = null; // When set only these regions are visited, in this order
 
     public static void iterateRegion(int xr, int zr, Spiraled s, Position2 pull) {
         for (Position2 i : ORDERS.computeIfAbsent(pull, PregenTask::computeOrder)) {
@@ -85,11 +87,21 @@ public class PregenTask {
     }
 
     public void iterateRegions(Spiraled s) {
+        if (regions != null) {
+            regions.forEach((i) -> s.on(i.getX(), i.getZ()));
+            return;
+        }
+
         new Spiraler(getWidth() * 2, getHeight() * 2, s)
                 .setOffset(center.getX(), center.getZ()).drain();
     }
 
     public void iterateAllChunks(Spiraled s) {
+        if (regions != null) {
+            regions.forEach((i) -> iterateRegion(i.getX(), i.getZ(), s));
+            return;
+        }
+
         new Spiraler(getWidth() * 2, getHeight() * 2, (x, z) -> iterateRegion(x, z, s))
                 .setOffset(center.getX(), center.getZ()).drain();
     }
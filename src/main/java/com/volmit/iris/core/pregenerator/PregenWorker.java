@@ -0,0 +1,162 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.pregenerator;
+
+import com.google.gson.Gson;
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.core.pregenerator.methods.HeadlessPregenMethod;
+import com.volmit.iris.core.tools.IrisToolbelt;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.object.IrisDimension;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.io.IO;
+import com.volmit.iris.util.math.Position2;
+import com.volmit.iris.util.scheduling.J;
+import lombok.Builder;
+import lombok.Data;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Runs inside a server started by the multi process pregenerator. The job file names the world and
+ * the regions this process owns, they are generated headless and the server shuts down after.
+ * Progress is only reported through the pregen journal of the world.
+ */
+public class PregenWorker {
+    public static final String PROPERTY = "iris.pregen.worker";
+
+    public static boolean isWorker() {
+        return System.getProperty(PROPERTY) != null;
+    }
+
+    public static void run() {
+        File file = new File(System.getProperty(PROPERTY));
+
+        try {
+            PregenWorkerJob job = new Gson().fromJson(IO.readAll(file), PregenWorkerJob.class);
+            File pack = new File(new File(Bukkit.getWorldContainer(), job.getWorld()), "iris/pack");
+            IrisDimension dimension = IrisData.get(pack).getDimensionLoader().load(job.getDimension());
+
+            if (dimension == null) {
+                Iris.error("Pregen worker: the pack in " + pack.getPath() + " has no dimension " + job.getDimension());
+            } else {
+                Engine engine = IrisToolbelt.createHeadlessEngine(Bukkit.getWorldContainer(), job.getWorld(), dimension, job.getSeed());
+                Iris.info("Pregen worker: generating " + job.getRegions().size() + " regions of " + job.getWorld());
+                new IrisPregenerator(PregenTask.builder()
+                        .regions(new KList<>(job.getRegions()))
+                        .build(), new HeadlessPregenMethod(engine), new QuietListener()).start();
+            }
+        } catch (Throwable e) {
+            Iris.error("Pregen worker failed to run " + file.getPath());
+            Iris.reportError(e);
+            e.printStackTrace();
+        }
+
+        J.s(Bukkit::shutdown);
+    }
+
+    @Data
+    @Builder
+    public static class PregenWorkerJob {
+        private String world;
+        private String dimension;
+        private long seed;
+        private List<Position2> regions;
+    }
+
+    private static class QuietListener implements PregenListener {
+        @Override
+        public void onTick(double chunksPerSecond, double chunksPerMinute, double regionsPerMinute, double percent, int generated, int totalChunks, int chunksRemaining, long eta, long elapsed, String method) {
+
+        }
+
+        @Override
+        public void onChunkGenerating(int x, int z) {
+
+        }
+
+        @Override
+        public void onChunkGenerated(int x, int z) {
+
+        }
+
+        @Override
+        public void onRegionGenerated(int x, int z) {
+
+        }
+
+        @Override
+        public void onRegionGenerating(int x, int z) {
+
+        }
+
+        @Override
+        public void onChunkCleaned(int x, int z) {
+
+        }
+
+        @Override
+        public void onRegionSkipped(int x, int z) {
+
+        }
+
+        @Override
+        public void onNetworkStarted(int x, int z) {
+
+        }
+
+        @Override
+        public void onNetworkFailed(int x, int z) {
+
+        }
+
+        @Override
+        public void onNetworkReclaim(int revert) {
+
+        }
+
+        @Override
+        public void onNetworkGeneratedChunk(int x, int z) {
+
+        }
+
+        @Override
+        public void onNetworkDownloaded(int x, int z) {
+
+        }
+
+        @Override
+        public void onClose() {
+
+        }
+
+        @Override
+        public void onSaving() {
+
+        }
+
+        @Override
+        public void onChunkExistsInRegionGen(int x, int z) {
+
+        }
+    }
+}
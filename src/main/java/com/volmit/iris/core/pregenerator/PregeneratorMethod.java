@@ -40,6 +40,38 @@ public interface PregeneratorMethod {
      */
     void save();
 
+    /**
+     * Called before finished work is journaled. Unlike save(), everything generated so far
+     * must be on disk once this returns.
+     */
+    default void flush() {
+        save();
+    }
+
+    /**
+     * Check if a region this method generated earlier is actually on disk. Used on resume to
+     * catch journaled work that never made it to disk.
+     *
+     * @param x the x region
+     * @param z the z region
+     * @return true if the region was saved (or the method can't tell)
+     */
+    default boolean isRegionPersisted(int x, int z) {
+        return true;
+    }
+
+    /**
+     * Called after a region was generated. Return true if the method had to give up on it (and
+     * did not save it), so it is not journaled as done. Each failure is only reported once.
+     *
+     * @param x the x region
+     * @param z the z region
+     * @return true if the region failed
+     */
+    default boolean isRegionFailed(int x, int z) {
+        return false;
+    }
+
     /**
      * Return true if regions can be generated
      *
@@ -0,0 +1,236 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.pregenerator.methods;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.core.nms.INMS;
+import com.volmit.iris.core.pregenerator.PregenListener;
+import com.volmit.iris.core.pregenerator.PregenTask;
+import com.volmit.iris.core.pregenerator.PregeneratorMethod;
+import com.volmit.iris.engine.data.chunk.MCATerrainChunk;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.matter.MatterBiomeInject;
+import com.volmit.iris.util.nbt.mca.Chunk;
+import com.volmit.iris.util.nbt.mca.NBTWorld;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates straight into region files without a loaded world. Chunks never touch the server's
+ * chunk system, light engine or tickets, finished regions are handed to the writer queue and
+ * saved in the background. Biomes (including custom ones) are copied from the mantle into the
+ * region files right after each chunk is generated, tiles stay in the mantle.
+ * <p>
+ * Chunks that fail to generate are retried a few times. If one still fails, its region is
+ * dropped without being saved and reported through {@link #isRegionFailed(int, int)}, so a region
+ * file on disk never has holes in it.
+ */
+public class HeadlessPregenMethod implements PregeneratorMethod {
+    private static final int CHUNK_ATTEMPTS = 3;
+    private final Engine engine;
+    private final NBTWorld writer;
+    private final MultiBurst burst;
+    private final AtomicInteger generated;
+    private final PrecisionStopwatch stopwatch;
+    private final KSet<Long> failed;
+
+    public HeadlessPregenMethod(Engine engine) {
+        this.engine = engine;
+        this.writer = new NBTWorld(engine.getWorld().worldFolder(),
+                IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()) / 4);
+        this.burst = MultiBurst.burst;
+        this.generated = new AtomicInteger(0);
+        this.stopwatch = PrecisionStopwatch.start();
+        this.failed = new KSet<>();
+    }
+
+    @Override
+    public void init() {
+
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        engine.close();
+        Iris.info("Headless pregen wrote " + Form.f(generated.get()) + " chunks in " + Form.duration(stopwatch.getMilliseconds(), 0)
+                + " (" + Form.f((int) (generated.get() / Math.max(stopwatch.getMilliseconds() / 1000D, 1D))) + " chunks/s)");
+    }
+
+    @Override
+    public void save() {
+        writer.save();
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public boolean isRegionPersisted(int x, int z) {
+        return writer.getRegionFile(x, z).exists();
+    }
+
+    @Override
+    public boolean supportsRegions(int x, int z, PregenListener listener) {
+        return true;
+    }
+
+    @Override
+    public String getMethod(int x, int z) {
+        return "Headless";
+    }
+
+    @Override
+    public void generateRegion(int x, int z, PregenListener listener) {
+        if (writer.getRegionFile(x, z).exists()) {
+            PregenTask.iterateRegion(x, z, listener::onChunkExistsInRegionGen);
+            return;
+        }
+
+        BurstExecutor b = burst.burst(1024);
+        KList<long[]> retry = new KList<>();
+        PregenTask.iterateRegion(x, z, (xx, zz) -> b.queue(() -> {
+            if (!generate(xx, zz, listener)) {
+                synchronized (retry) {
+                    retry.add(new long[]{xx, zz});
+                }
+            }
+        }));
+        b.complete();
+
+        for (long[] i : retry) {
+            if (!retry((int) i[0], (int) i[1], listener)) {
+                fail(x, z);
+                return;
+            }
+        }
+
+        writer.queueSaveUnload(x, z);
+    }
+
+    @Override
+    public void generateChunk(int x, int z, PregenListener listener) {
+        if (failed.contains(Cache.key(x >> 5, z >> 5))) {
+            return;
+        }
+
+        if (writer.getRegionFile(x >> 5, z >> 5).exists()) {
+            listener.onChunkExistsInRegionGen(x, z);
+            return;
+        }
+
+        if (!generate(x, z, listener) && !retry(x, z, listener)) {
+            fail(x >> 5, z >> 5);
+        }
+    }
+
+    @Override
+    public boolean isRegionFailed(int x, int z) {
+        return failed.remove(Cache.key(x, z));
+    }
+
+    private boolean retry(int x, int z, PregenListener listener) {
+        for (int i = 1; i < CHUNK_ATTEMPTS; i++) {
+            Iris.warn("Retrying headless chunk " + x + " " + z + " (" + (i + 1) + "/" + CHUNK_ATTEMPTS + ")");
+
+            if (generate(x, z, listener)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Drop a region that has a chunk that could not be generated, without saving it
+     */
+    private void fail(int x, int z) {
+        Iris.error("Dropping headless region " + x + " " + z + " because a chunk in it keeps failing to generate");
+        failed.add(Cache.key(x, z));
+        writer.unloadRegion(x, z);
+    }
+
+    /**
+     * @return true if the chunk was generated, chunks are only reported as generated on success
+     */
+    private boolean generate(int x, int z, PregenListener listener) {
+        listener.onChunkGenerating(x, z);
+
+        try {
+            Chunk chunk = writer.getChunk(x, z);
+            MCATerrainChunk tc = MCATerrainChunk.builder()
+                    .writer(writer)
+                    .ox(x << 4)
+                    .oz(z << 4)
+                    .minHeight(engine.getMinHeight())
+                    .maxHeight(engine.getMinHeight() + engine.getHeight())
+                    .mcaChunk(chunk)
+                    .injector((xx, yy, zz, biomeBase) -> chunk.setBiomeAt(xx & 15, yy, zz & 15,
+                            INMS.get().getTrueBiomeBaseId(biomeBase)))
+                    .build();
+            engine.generate(x << 4, z << 4, tc, false);
+            injectBiomes(x, z, chunk);
+            generated.incrementAndGet();
+        } catch (Throwable e) {
+            Iris.reportError(e);
+            Iris.error("Failed to generate chunk " + x + " " + z + " headless");
+            e.printStackTrace();
+            return false;
+        }
+
+        listener.onChunkGenerated(x, z);
+        listener.onChunkCleaned(x, z);
+        return true;
+    }
+
+    /**
+     * Copy the biomes the engine stored in the mantle into the region chunk. The engine stores
+     * one biome per column, region chunks hold one per 4x4x4 cell.
+     */
+    private void injectBiomes(int x, int z, Chunk chunk) {
+        int height = engine.getHeight() >> 2;
+        engine.getMantle().getMantle().iterateChunk(x, z, MatterBiomeInject.class, (xx, yy, zz, b) -> {
+            if (b == null || (xx & 3) != 0 || (zz & 3) != 0) {
+                return;
+            }
+
+            int id = b.isCustom() ? b.getBiomeId() : writer.getBiomeId(b.getBiome());
+
+            for (int i = 0; i < height; i++) {
+                chunk.setBiomeAt(xx >> 2, i, zz >> 2, id);
+            }
+        });
+    }
+
+    @Override
+    public Mantle getMantle() {
+        return engine.getMantle().getMantle();
+    }
+}
@@ -0,0 +1,529 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.pregenerator.methods;
+
+import com.google.gson.Gson;
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.core.pregenerator.PregenJournal;
+import com.volmit.iris.core.pregenerator.PregenListener;
+import com.volmit.iris.core.pregenerator.PregenTask;
+import com.volmit.iris.core.pregenerator.PregenWorker;
+import com.volmit.iris.core.pregenerator.PregeneratorMethod;
+import com.volmit.iris.core.service.StudioSVC;
+import com.volmit.iris.core.tools.IrisToolbelt;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.object.IrisDimension;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.io.IO;
+import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.mantle.TectonicPlate;
+import com.volmit.iris.util.math.M;
+import com.volmit.iris.util.math.Position2;
+import com.volmit.iris.util.scheduling.J;
+import org.apache.commons.io.FileUtils;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a headless pregen across several server processes started from the same jar. Every
+ * worker owns a strip of regions and generates it into its own copy of the world under
+ * world/iris/workers, reporting progress through its pregen journal. Once all workers are done
+ * the finished region files are moved into the world and the mantle plates are merged, since
+ * features near the strip borders write into plates owned by the neighbouring worker.
+ * <p>
+ * Workers run with their own plugins folder holding only Iris (with the settings and packs of
+ * this server), so other plugins never load in them.
+ * <p>
+ * Workers that die are restarted (they resume from their journal) a few times. After that, the
+ * regions their journal does not list as done are reclaimed and generated headless by this
+ * process instead. Re-running the same pregen with the same worker count picks up where the
+ * workers left off.
+ */
+public class MultiProcessPregenMethod implements PregeneratorMethod {
+    private static final int MAX_RESTARTS = 3;
+    private final File worldFolder;
+    private final String world;
+    private final IrisDimension dimension;
+    private final long seed;
+    private final KList<Worker> workers;
+    private final KMap<Position2, Worker> owners;
+    private final KMap<Long, Integer> reported;
+    private final KSet<Position2> reclaimed;
+    private HeadlessPregenMethod local;
+    private long lastPoll;
+
+    public MultiProcessPregenMethod(File worldContainer, String world, IrisDimension dimension, long seed, PregenTask task, int count) {
+        this.worldFolder = new File(worldContainer, world);
+        this.world = world;
+        this.dimension = dimension;
+        this.seed = seed;
+        this.workers = new KList<>();
+        this.owners = new KMap<>();
+        this.reported = new KMap<>();
+        this.reclaimed = new KSet<>();
+        KList<Position2> regions = new KList<>();
+        task.iterateRegions((x, z) -> regions.add(new Position2(x, z)));
+        regions.sort(Comparator.comparingInt(Position2::getX).thenComparingInt(Position2::getZ));
+        count = Math.max(1, Math.min(count, regions.size()));
+        int per = (regions.size() + count - 1) / count;
+
+        for (int i = 0; i < count; i++) {
+            Worker w = new Worker(i, new File(worldFolder, "iris/workers/" + i));
+
+            for (int j = i * per; j < Math.min(regions.size(), (i + 1) * per); j++) {
+                w.regions.add(regions.get(j));
+                owners.put(regions.get(j), w);
+            }
+
+            workers.add(w);
+        }
+    }
+
+    @Override
+    public void init() {
+        File pack = IrisToolbelt.installPack(worldFolder, dimension);
+
+        for (Worker i : workers) {
+            try {
+                i.prepare(pack);
+                i.launch();
+            } catch (IOException e) {
+                Iris.error("Failed to start pregen worker " + i.id);
+                Iris.reportError(e);
+                e.printStackTrace();
+                i.failed = true;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Worker i : workers) {
+            if (i.process == null) {
+                continue;
+            }
+
+            if (i.process.isAlive()) {
+                Iris.info("Stopping pregen worker " + i.id);
+                i.process.destroy();
+            }
+
+            try {
+                if (!i.process.waitFor(5, TimeUnit.MINUTES)) {
+                    i.process.destroyForcibly().waitFor();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (local != null) {
+            local.close();
+        }
+
+        merge();
+    }
+
+    @Override
+    public void save() {
+        if (local != null) {
+            local.save();
+        }
+    }
+
+    @Override
+    public boolean supportsRegions(int x, int z, PregenListener listener) {
+        return true;
+    }
+
+    @Override
+    public String getMethod(int x, int z) {
+        return "Multi Process";
+    }
+
+    @Override
+    public void generateRegion(int x, int z, PregenListener listener) {
+        Worker w = owners.get(new Position2(x, z));
+
+        if (w == null) {
+            return;
+        }
+
+        listener.onNetworkStarted(x, z);
+
+        while (true) {
+            boolean alive = w.process != null && w.process.isAlive();
+            poll(listener, !alive);
+
+            if (reported.getOrDefault(Cache.key(x, z), 0) >= 1024) {
+                break;
+            }
+
+            if (!alive && !w.failed) {
+                w.restart();
+            }
+
+            if (w.failed) {
+                reclaim(x, z, listener);
+                break;
+            }
+
+            J.sleep(1000);
+        }
+
+        listener.onNetworkDownloaded(x, z);
+    }
+
+    @Override
+    public void generateChunk(int x, int z, PregenListener listener) {
+        generateRegion(x >> 5, z >> 5, listener);
+    }
+
+    @Override
+    public Mantle getMantle() {
+        return null;
+    }
+
+    /**
+     * Take a region back from a failed worker and generate it in this process. Chunks the worker
+     * already reported for it are reverted first, since its partial region file is not used.
+     */
+    private void reclaim(int x, int z, PregenListener listener) {
+        HeadlessPregenMethod l = local();
+
+        if (l == null) {
+            listener.onNetworkFailed(x, z);
+            return;
+        }
+
+        synchronized (this) {
+            reclaimed.add(new Position2(x, z));
+            int revert = reported.getOrDefault(Cache.key(x, z), 0);
+
+            if (revert > 0) {
+                listener.onNetworkReclaim(revert);
+            }
+        }
+
+        Iris.info("Generating region " + x + " " + z + " of a failed pregen worker locally");
+        l.generateRegion(x, z, listener);
+    }
+
+    private synchronized HeadlessPregenMethod local() {
+        if (local == null) {
+            Engine engine = IrisToolbelt.createHeadlessEngine(worldFolder.getParentFile(), world, dimension, seed);
+
+            if (engine == null) {
+                return null;
+            }
+
+            local = new HeadlessPregenMethod(engine);
+            local.init();
+        }
+
+        return local;
+    }
+
+    /**
+     * Read the journals of all workers and report chunks they finished since the last poll
+     *
+     * @param force poll even if the last poll was less than a second ago
+     */
+    private synchronized void poll(PregenListener listener, boolean force) {
+        if (!force && M.ms() - lastPoll < 1000) {
+            return;
+        }
+
+        lastPoll = M.ms();
+
+        for (Worker i : workers) {
+            PregenJournal journal = PregenJournal.snapshot(i.journal());
+
+            for (Position2 j : i.regions) {
+                if (reclaimed.contains(j)) {
+                    continue;
+                }
+
+                Long key = Cache.key(j.getX(), j.getZ());
+                int done = journal.countChunks(j.getX(), j.getZ());
+
+                for (int k = reported.getOrDefault(key, 0); k < done; k++) {
+                    listener.onNetworkGeneratedChunk(j.getX() << 5, j.getZ() << 5);
+                }
+
+                reported.put(key, Math.max(done, reported.getOrDefault(key, 0)));
+            }
+        }
+    }
+
+    private void merge() {
+        File region = new File(worldFolder, "region");
+        File mantle = new File(worldFolder, "mantle");
+        region.mkdirs();
+        mantle.mkdirs();
+        int moved = 0;
+        boolean complete = true;
+
+        for (Worker i : workers) {
+            PregenJournal journal = PregenJournal.snapshot(i.journal());
+
+            for (Position2 j : i.regions) {
+                if (reclaimed.contains(j)) {
+                    continue;
+                }
+
+                if (!journal.isRegionDone(j.getX(), j.getZ())) {
+                    complete = false;
+                    continue;
+                }
+
+                File from = new File(i.world(), "region/r." + j.getX() + "." + j.getZ() + ".mca");
+                File to = new File(region, from.getName());
+
+                if (!from.exists()) {
+                    continue;
+                }
+
+                if (to.exists()) {
+                    Iris.warn("Not replacing " + to.getPath() + " with the copy from pregen worker " + i.id);
+                    continue;
+                }
+
+                try {
+                    FileUtils.moveFile(from, to);
+                    moved++;
+                } catch (IOException e) {
+                    Iris.error("Failed to move " + from.getPath());
+                    Iris.reportError(e);
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        KMap<Long, KList<File>> plates = new KMap<>();
+
+        for (Worker i : workers) {
+            File[] files = new File(i.world(), "mantle").listFiles((f, n) -> n.startsWith("p.") && n.endsWith(".ttp"));
+
+            if (files == null) {
+                continue;
+            }
+
+            for (File j : files) {
+                Long key = Long.parseLong(j.getName().substring(2, j.getName().length() - 4));
+                Worker owner = owners.get(new Position2(Cache.keyX(key), Cache.keyZ(key)));
+                KList<File> sources = plates.computeIfAbsent(key, (k) -> new KList<>());
+
+                if (owner == i) {
+                    sources.add(0, j);
+                } else {
+                    sources.add(j);
+                }
+            }
+        }
+
+        int worldHeight = dimension.getMaxHeight() - dimension.getMinHeight();
+
+        for (Long i : plates.k()) {
+            File target = Mantle.fileForRegion(mantle, i);
+
+            try {
+                TectonicPlate plate = target.exists() ? TectonicPlate.read(worldHeight, target) : null;
+
+                for (File j : plates.get(i)) {
+                    TectonicPlate other = TectonicPlate.read(worldHeight, j);
+
+                    if (plate == null) {
+                        plate = other;
+                    } else {
+                        plate.adopt(other);
+                    }
+                }
+
+                plate.write(target);
+            } catch (Throwable e) {
+                Iris.error("Failed to merge mantle plate " + target.getName());
+                Iris.reportError(e);
+                e.printStackTrace();
+            }
+        }
+
+        Iris.info("Merged pregen workers: moved " + moved + " regions, merged " + plates.size() + " mantle plates");
+
+        if (complete) {
+            IO.delete(new File(worldFolder, "iris/workers"));
+        } else {
+            Iris.warn("Some pregen workers did not finish, their progress is kept in " + new File(worldFolder, "iris/workers").getPath());
+        }
+    }
+
+    private static File serverJar() {
+        List<String> args = ProcessHandle.current().info().arguments().map(Arrays::asList).orElse(List.of());
+
+        for (int i = 0; i < args.size() - 1; i++) {
+            if (args.get(i).equals("-jar")) {
+                return new File(args.get(i + 1)).getAbsoluteFile();
+            }
+        }
+
+        try {
+            return new File(Bukkit.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot find the server jar", e);
+        }
+    }
+
+    private static File irisJar() {
+        try {
+            return new File(Iris.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot find the Iris jar", e);
+        }
+    }
+
+    /**
+     * Link a file or folder, copying it where links are not supported
+     */
+    private static void link(File from, File to) throws IOException {
+        if (!from.exists() || Files.exists(to.toPath(), LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        try {
+            Files.createSymbolicLink(to.toPath(), from.getAbsoluteFile().toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            if (from.isDirectory()) {
+                FileUtils.copyDirectory(from, to);
+            } else {
+                FileUtils.copyFile(from, to);
+            }
+        }
+    }
+
+    private class Worker {
+        private final int id;
+        private final File folder;
+        private final KList<Position2> regions;
+        private Process process;
+        private int restarts;
+        private boolean failed;
+
+        private Worker(int id, File folder) {
+            this.id = id;
+            this.folder = folder;
+            this.regions = new KList<>();
+        }
+
+        private File world() {
+            return new File(folder, world);
+        }
+
+        private File journal() {
+            return PregenJournal.file(world(), PregenTask.builder().regions(regions).build());
+        }
+
+        private File job() {
+            return new File(folder, "job.json");
+        }
+
+        private File plugins() {
+            return new File(folder, "plugins");
+        }
+
+        private void prepare(File pack) throws IOException {
+            File eula = new File("eula.txt");
+            File workerPack = new File(world(), "iris/pack");
+            folder.mkdirs();
+
+            if (eula.exists()) {
+                FileUtils.copyFile(eula, new File(folder, "eula.txt"));
+            }
+
+            if (!workerPack.exists()) {
+                FileUtils.copyDirectory(pack, workerPack);
+            }
+
+            File jar = irisJar();
+            File data = new File(plugins(), Iris.instance.getDataFolder().getName());
+            File settings = new File(Iris.instance.getDataFolder(), "settings.json");
+            data.mkdirs();
+            link(jar, new File(plugins(), jar.getName()));
+            link(new File(Iris.instance.getDataFolder(), StudioSVC.WORKSPACE_NAME), new File(data, StudioSVC.WORKSPACE_NAME));
+
+            if (settings.exists()) {
+                FileUtils.copyFile(settings, new File(data, settings.getName()));
+            }
+
+            IO.writeAll(job(), new Gson().toJson(PregenWorker.PregenWorkerJob.builder()
+                    .world(world)
+                    .dimension(dimension.getLoadKey())
+                    .seed(seed)
+                    .regions(regions)
+                    .build()));
+        }
+
+        private void launch() throws IOException {
+            String java = ProcessHandle.current().info().command().orElse(new File(System.getProperty("java.home"), "bin/java").getPath());
+            IrisSettings.IrisSettingsConcurrency c = IrisSettings.get().getConcurrency();
+            process = new ProcessBuilder(java,
+                    "-Xmx" + c.getPregenWorkerHeap(),
+                    "-D" + PregenWorker.PROPERTY + "=" + job().getAbsolutePath(),
+                    "-jar", serverJar().getPath(),
+                    "--nogui",
+                    "--port", String.valueOf(c.getPregenWorkerBasePort() + id),
+                    "--plugins", plugins().getAbsolutePath(),
+                    "--level-name", "worker")
+                    .directory(folder)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(folder, "worker.log")))
+                    .start();
+            Iris.info("Started pregen worker " + id + " for " + regions.size() + " regions (pid " + process.pid() + ")");
+        }
+
+        private void restart() {
+            if (restarts++ >= MAX_RESTARTS) {
+                Iris.error("Pregen worker " + id + " died too often, generating its remaining regions locally. See " + new File(folder, "worker.log").getPath());
+                failed = true;
+                return;
+            }
+
+            Iris.warn("Pregen worker " + id + " died, restarting it (" + restarts + "/" + MAX_RESTARTS + ")");
+
+            try {
+                launch();
+            } catch (IOException e) {
+                Iris.reportError(e);
+                e.printStackTrace();
+                failed = true;
+            }
+        }
+    }
+}
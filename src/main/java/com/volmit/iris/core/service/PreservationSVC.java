@@ -24,11 +24,13 @@ import com.volmit.iris.engine.framework.MeteredCache;
 import com.volmit.iris.util.context.IrisContext;
 import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.plugin.IrisService;
 import com.volmit.iris.util.scheduling.Looper;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
@@ -51,9 +53,13 @@ public class PreservationSVC implements IrisService {
         services.add(service);
     }
 
+    /**
+     * Print the entry counts of all caches. Mantles are sized in bytes, so they are printed on
+     * their own lines instead of being summed with the entry counts.
+     */
     public void printCaches() {
-        long s = caches.stream().filter(i -> !i.isClosed()).mapToLong(MeteredCache::getSize).sum();
-        long m = caches.stream().filter(i -> !i.isClosed()).mapToLong(MeteredCache::getMaxSize).sum();
+        long s = caches.stream().filter(i -> !i.isClosed() && !(i instanceof Mantle)).mapToLong(MeteredCache::getSize).sum();
+        long m = caches.stream().filter(i -> !i.isClosed() && !(i instanceof Mantle)).mapToLong(MeteredCache::getMaxSize).sum();
         double p = 0;
         double mf = 0;
 
@@ -62,13 +68,19 @@ public class PreservationSVC implements IrisService {
                 continue;
             }
 
+            if (i instanceof Mantle mantle) {
+                Iris.info("Mantle " + mantle.getDataFolder().getPath() + ": " + mantle.getCacheStats());
+                continue;
+            }
+
             mf++;
             p += i.getUsage();
         }
 
+        int count = (int) mf;
         mf = mf == 0 ? 1 : mf;
 
-        Iris.info("Cached " + Form.f(s) + " / " + Form.f(m) + " (" + Form.pc(p / mf) + ") from " + caches.size() + " Caches");
+        Iris.info("Cached " + Form.f(s) + " / " + Form.f(m) + " (" + Form.pc(p / mf) + ") from " + count + " Caches");
     }
 
     public void dereference() {
@@ -131,6 +143,6 @@ public class PreservationSVC implements IrisService {
     }
 
     public List<KCache<?, ?>> caches() {
-        return caches.stream().map(MeteredCache::getRawCache).collect(Collectors.toList());
+        return caches.stream().map(MeteredCache::getRawCache).filter(Objects::nonNull).collect(Collectors.toList());
     }
 }
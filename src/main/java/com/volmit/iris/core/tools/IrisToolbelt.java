@@ -26,8 +26,11 @@ import com.volmit.iris.core.pregenerator.PregenTask;
 import com.volmit.iris.core.pregenerator.PregeneratorMethod;
 import com.volmit.iris.core.pregenerator.methods.HybridPregenMethod;
 import com.volmit.iris.core.service.StudioSVC;
+import com.volmit.iris.engine.IrisEngine;
 import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.EngineTarget;
 import com.volmit.iris.engine.object.IrisDimension;
+import com.volmit.iris.engine.object.IrisWorld;
 import com.volmit.iris.engine.platform.PlatformChunkGenerator;
 import com.volmit.iris.util.plugin.VolmitSender;
 import org.bukkit.Bukkit;
@@ -173,6 +176,55 @@ public class IrisToolbelt {
         return pregenerate(task, new HybridPregenMethod(world, IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism())), null);
     }
 
+    /**
+     * Install the pack of a dimension into a world folder unless it already has one
+     *
+     * @param worldFolder the world folder
+     * @param dimension   the dimension
+     * @return the pack folder of the world
+     */
+    public static File installPack(File worldFolder, IrisDimension dimension) {
+        File pack = new File(worldFolder, "iris/pack");
+
+        if (!pack.exists() || pack.listFiles().length == 0) {
+            pack.mkdirs();
+            Iris.service(StudioSVC.class).installIntoWorld(Iris.getSender(), dimension.getLoadKey(), worldFolder);
+        }
+
+        return pack;
+    }
+
+    /**
+     * Create an engine for a world that is not loaded, installing the pack into the world folder
+     * if it is not there yet
+     *
+     * @param worldContainer the folder holding the world folder
+     * @param world          the world name
+     * @param dimension      the dimension the world uses
+     * @param seed           the world seed
+     * @return the engine or null if the installed pack lacks the dimension
+     */
+    public static Engine createHeadlessEngine(File worldContainer, String world, IrisDimension dimension, long seed) {
+        IrisWorld w = IrisWorld.builder()
+                .name(world)
+                .seed(seed)
+                .environment(dimension.getEnvironment())
+                .worldFolder(new File(worldContainer, world))
+                .minHeight(dimension.getMinHeight())
+                .maxHeight(dimension.getMaxHeight())
+                .build();
+        File pack = installPack(w.worldFolder(), dimension);
+        IrisData data = IrisData.get(pack);
+        IrisDimension dim = data.getDimensionLoader().load(dimension.getLoadKey());
+
+        if (dim == null) {
+            Iris.error("The pack in " + pack.getPath() + " has no dimension " + dimension.getLoadKey());
+            return null;
+        }
+
+        return new IrisEngine(new EngineTarget(w, dim, data), false);
+    }
+
     /**
      * Evacuate all players from the world into literally any other world.
      * If there are no other worlds, kick them! Not the best but what's mine is mine sometimes...
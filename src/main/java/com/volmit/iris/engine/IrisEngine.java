@@ -32,9 +32,11 @@ import com.volmit.iris.engine.mantle.EngineMantle;
 import com.volmit.iris.engine.object.*;
 import com.volmit.iris.engine.scripting.EngineExecutionEnvironment;
 import com.volmit.iris.util.atomics.AtomicRollingSequence;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.context.IrisContext;
+import com.volmit.iris.util.data.B;
 import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
@@ -44,6 +46,8 @@ import com.volmit.iris.util.mantle.MantleFlag;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.MatterStructurePOI;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.J;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
@@ -169,6 +173,8 @@ public class IrisEngine implements Engine {
             effects = new IrisEngineEffects(this);
             setupMode();
             J.a(this::computeBiomeMaxes);
+            J.a(this::warmBlockData);
+            J.a(this::compileDeposits);
         } catch (Throwable e) {
             Iris.error("FAILED TO SETUP ENGINE!");
             e.printStackTrace();
@@ -295,6 +301,49 @@ public class IrisEngine implements Engine {
         return studio;
     }
 
+    /**
+     * Resolve the block data of every palette up front so generation does not parse it
+     */
+    private void warmBlockData() {
+        PrecisionStopwatch p = PrecisionStopwatch.start();
+        BurstExecutor burst = MultiBurst.burst.burst();
+        burst.queue(() -> getDimension().getRockPalette().getBlockData(getData()));
+        burst.queue(() -> getDimension().getFluidPalette().getBlockData(getData()));
+
+        for (IrisBiome i : getDimension().getAllBiomes(this)) {
+            for (IrisBiomePaletteLayer j : i.getLayers()) {
+                burst.queue(() -> j.getBlockData(getData()));
+            }
+
+            for (IrisBiomePaletteLayer j : i.getSeaLayers()) {
+                burst.queue(() -> j.getBlockData(getData()));
+            }
+        }
+
+        burst.complete();
+        Iris.debug("Warmed " + Form.f(B.getCacheSize()) + " block data in " + Form.duration(p.getMilliseconds(), 0));
+    }
+
+    /**
+     * Generate and compile the clump variants of every deposit generator. Variants only depend on
+     * the deposit seed so it does not matter if a chunk gets to a generator first.
+     */
+    private void compileDeposits() {
+        PrecisionStopwatch p = PrecisionStopwatch.start();
+        RNG rng = new RNG(getSeedManager().getDeposit());
+        KList<IrisDepositGenerator> deposits = new KList<>(getDimension().getDeposits());
+        getDimension().getAllRegions(this).forEach((i) -> deposits.addAll(i.getDeposits()));
+        getDimension().getAllBiomes(this).forEach((i) -> deposits.addAll(i.getDeposits()));
+        BurstExecutor burst = MultiBurst.burst.burst();
+
+        for (IrisDepositGenerator i : deposits) {
+            burst.queue(() -> i.compile(rng, getData()));
+        }
+
+        burst.complete();
+        Iris.debug("Compiled " + Form.f(deposits.size()) + " deposit generators in " + Form.duration(p.getMilliseconds(), 0));
+    }
+
     private void computeBiomeMaxes() {
         for (IrisBiome i : getDimension().getAllBiomes(this)) {
             double density = 0;
@@ -365,6 +414,7 @@ public class IrisEngine implements Engine {
         }
 
         sender.sendMessage("Total: " + C.BOLD + C.WHITE + Form.duration(masterWallClock, 0));
+        sender.sendMessage("Mantle: " + C.WHITE + getMantle().getMantle().getCacheStats());
 
         for (String i : totals.k()) {
             sender.sendMessage("  Engine " + C.UNDERLINE + C.GREEN + i + C.RESET + ": " + C.BOLD + C.WHITE + Form.duration(totals.get(i), 0));
@@ -58,6 +58,7 @@ import org.bukkit.inventory.ItemStack;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -68,6 +69,7 @@ import java.util.stream.Stream;
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class IrisWorldManager extends EngineAssignedWorldManager {
+    private static final long PREFETCH_LOOKAHEAD = 10000;
     private final Looper looper;
     private final int id;
     private final KList<Runnable> updateQueue = new KList<>();
@@ -83,6 +85,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
     private int cooldown = 0;
     private List<Entity> precount = new KList<>();
     private KSet<Position2> injectBiomes = new KSet<>();
+    private KMap<UUID, double[]> playerMotion = new KMap<>();
 
     public IrisWorldManager() {
         super(null);
@@ -115,6 +118,10 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
                     getEngine().getWorld().tryGetRealWorld();
                 }
 
+                if (getEngine().getWorld().hasRealWorld()) {
+                    prefetchPlates();
+                }
+
                 if (!IrisSettings.get().getWorld().isMarkerEntitySpawningSystem() && !IrisSettings.get().getWorld().isAnbientEntitySpawningSystem()) {
                     return 3000;
                 }
@@ -174,6 +181,45 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         looper.start();
     }
 
+    /**
+     * Predict where players are heading from how far they moved since the last tick
+     * and read the plates along the way (plus view distance) ahead of time
+     */
+    private void prefetchPlates() {
+        World world = getEngine().getWorld().realWorld();
+        double now = M.ms();
+        double ahead = world.getViewDistance() << 4;
+        KMap<UUID, double[]> motion = new KMap<>();
+        KList<Position2> regions = new KList<>();
+
+        for (Player i : world.getPlayers()) {
+            Location l = i.getLocation();
+            double[] last = playerMotion.get(i.getUniqueId());
+            motion.put(i.getUniqueId(), new double[]{l.getX(), l.getZ(), now});
+
+            if (last == null || now <= last[2]) {
+                continue;
+            }
+
+            double vx = (l.getX() - last[0]) / (now - last[2]);
+            double vz = (l.getZ() - last[1]) / (now - last[2]);
+            double speed = Math.sqrt((vx * vx) + (vz * vz));
+
+            if (speed < 0.001) {
+                continue;
+            }
+
+            double distance = (speed * PREFETCH_LOOKAHEAD) + ahead;
+
+            for (double d = 0; d <= distance; d += 256) {
+                regions.add(new Position2(((int) Math.floor(l.getX() + (vx / speed) * d)) >> 9, ((int) Math.floor(l.getZ() + (vz / speed) * d)) >> 9));
+            }
+        }
+
+        playerMotion = motion;
+        getMantle().getPrefetcher().predict("players", regions);
+    }
+
     private void updateChunks() {
         for (Player i : getEngine().getWorld().realWorld().getPlayers()) {
             int r = 1;
@@ -47,6 +47,7 @@ import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.Position2;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterObjectPlacement;
 import com.volmit.iris.util.matter.MatterUpdate;
 import com.volmit.iris.util.matter.TileWrapper;
 import com.volmit.iris.util.parallel.BurstExecutor;
@@ -428,7 +429,7 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
         int rx = b.getX();
         int rz = b.getZ();
         int ry = b.getY() - getWorld().minHeight();
-        double he = getComplex().getHeightStream().get(rx, rz);
+        double he = getComplex().getHeightStream().getDouble(rx, rz);
         KList<IrisLootTable> tables = new KList<>();
 
         PlacedObject po = getObjectPlacement(rx, ry, rz);
@@ -750,14 +751,24 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
     }
 
     default PlacedObject getObjectPlacement(int x, int y, int z) {
-        String objectAt = getMantle().getMantle().get(x, y, z, String.class);
-        if (objectAt == null || objectAt.isEmpty()) {
-            return null;
+        String object;
+        int id;
+        MatterObjectPlacement placement = getMantle().getMantle().getObject(x, y, z);
+
+        if (placement != null) {
+            object = placement.getObject();
+            id = placement.getId();
+        } else {
+            String objectAt = getMantle().getMantle().get(x, y, z, String.class);
+            if (objectAt == null || objectAt.isEmpty()) {
+                return null;
+            }
+
+            String[] v = objectAt.split("\\Q@\\E");
+            object = v[0];
+            id = Integer.parseInt(v[1]);
         }
 
-        String[] v = objectAt.split("\\Q@\\E");
-        String object = v[0];
-        int id = Integer.parseInt(v[1]);
         IrisRegion region = getRegion(x, z);
 
         for (IrisObjectPlacement i : region.getObjects()) {
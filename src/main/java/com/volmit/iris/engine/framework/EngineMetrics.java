@@ -37,6 +37,7 @@ public class EngineMetrics {
     private final AtomicRollingSequence cave;
     private final AtomicRollingSequence ravine;
     private final AtomicRollingSequence deposit;
+    private final AtomicRollingSequence apply;
 
     public EngineMetrics(int mem) {
         this.total = new AtomicRollingSequence(mem);
@@ -52,6 +53,7 @@ public class EngineMetrics {
         this.cave = new AtomicRollingSequence(mem);
         this.ravine = new AtomicRollingSequence(mem);
         this.deposit = new AtomicRollingSequence(mem);
+        this.apply = new AtomicRollingSequence(mem);
     }
 
     public KMap<String, Double> pull() {
@@ -69,6 +71,7 @@ public class EngineMetrics {
         v.put("cave", cave.getAverage());
         v.put("ravine", ravine.getAverage());
         v.put("deposit", deposit.getAverage());
+        v.put("apply", apply.getAverage());
 
         return v;
     }
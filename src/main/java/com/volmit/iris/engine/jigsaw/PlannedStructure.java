@@ -284,7 +284,7 @@ public class PlannedStructure {
         int v = 0;
 
         for (PlannedPiece i : pieces) {
-            v += i.getObject().getBlocks().size();
+            v += i.getObject().volume();
         }
 
         return v;
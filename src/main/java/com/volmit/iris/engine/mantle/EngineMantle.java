@@ -43,6 +43,7 @@ import com.volmit.iris.util.matter.*;
 import com.volmit.iris.util.matter.slices.UpdateMatter;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.block.TileState;
 import org.bukkit.block.data.BlockData;
 
@@ -97,7 +98,7 @@ public interface EngineMantle extends IObjectPlacer {
     }
 
     default boolean isCarved(int x, int h, int z) {
-        return getMantle().get(x, h, z, MatterCavern.class) != null;
+        return getMantle().isCarved(x, h, z);
     }
 
     @Override
@@ -190,14 +191,34 @@ public interface EngineMantle extends IObjectPlacer {
 
     @ChunkCoordinates
     default void generateMatter(int x, int z, boolean multicore, ChunkContext context) {
-        synchronized (this) {
-            if (!getEngine().getDimension().isUseMantle()) {
-                return;
+        if (!getEngine().getDimension().isUseMantle()) {
+            return;
+        }
+
+        PrecisionStopwatch p = PrecisionStopwatch.start();
+
+        if (IrisSettings.get().getConcurrency().isConcurrentMantlePlanning()) {
+            getMantle().claim(x, z, getRealRadius() * 2, () -> planMatter(x, z, multicore, context));
+        } else {
+            synchronized (this) {
+                planMatter(x, z, multicore, context);
             }
+        }
 
-            int s = getRealRadius();
-            BurstExecutor burst = burst().burst(multicore);
-            MantleWriter writer = getMantle().write(this, x, z, s * 2);
+        getEngine().getMetrics().getParallax().put(p.getMilliseconds());
+    }
+
+    /**
+     * Plan the mantle around the given chunk. The caller must own every chunk within
+     * twice the real radius, either through the engine monitor or a mantle claim.
+     */
+    @ChunkCoordinates
+    default void planMatter(int x, int z, boolean multicore, ChunkContext context) {
+        int s = getRealRadius();
+        BurstExecutor burst = burst().burst(multicore);
+        MantleWriter writer = getMantle().write(this, x, z, s * 2);
+
+        try {
             for (int i = -s; i <= s; i++) {
                 for (int j = -s; j <= s; j++) {
                     int xx = i + x;
@@ -216,6 +237,8 @@ public interface EngineMantle extends IObjectPlacer {
             }
 
             burst.complete();
+        } finally {
+            writer.close();
         }
     }
 
@@ -239,11 +262,7 @@ public interface EngineMantle extends IObjectPlacer {
 
     @BlockCoordinates
     default void dropCavernBlock(int x, int y, int z) {
-        Matter matter = getMantle().getChunk(x & 15, z & 15).get(y & 15);
-
-        if (matter != null) {
-            matter.slice(MatterCavern.class).set(x & 15, y & 15, z & 15, null);
-        }
+        getMantle().remove(x, y, z, MatterCavern.class);
     }
 
     default boolean queueRegenerate(int x, int z) {
@@ -283,6 +302,7 @@ public interface EngineMantle extends IObjectPlacer {
             getMantle().raiseFlag(x, z, MantleFlag.CLEANED, () -> {
                 getMantle().deleteChunkSlice(x, z, BlockData.class);
                 getMantle().deleteChunkSlice(x, z, String.class);
+                getMantle().deleteChunkSlice(x, z, MatterObjectHandle.class);
                 getMantle().deleteChunkSlice(x, z, MatterCavern.class);
                 getMantle().deleteChunkSlice(x, z, MatterFluidBody.class);
             });
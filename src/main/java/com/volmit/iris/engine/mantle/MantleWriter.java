@@ -28,18 +28,19 @@ import com.volmit.iris.engine.object.IrisGeneratorStyle;
 import com.volmit.iris.engine.object.IrisPosition;
 import com.volmit.iris.engine.object.TileData;
 import com.volmit.iris.util.collection.KMap;
-import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.function.Function3;
 import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.mantle.MantleChunk;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterObjectPlacement;
+import com.volmit.iris.util.matter.MatterSlice;
 import lombok.Data;
 import org.bukkit.block.TileState;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.util.Vector;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -60,59 +61,17 @@ public class MantleWriter implements IObjectPlacer {
         this.x = x;
         this.z = z;
 
-        for (int i = -radius; i <= radius; i++) {
-            for (int j = -radius; j <= radius; j++) {
-                cachedChunks.put(Cache.key(i + x, j + z), mantle.getChunk(i + x, j + z));
+        for (int i = (x - radius) >> 5; i <= (x + radius) >> 5; i++) {
+            for (int j = (z - radius) >> 5; j <= (z + radius) >> 5; j++) {
+                mantle.pin(i, j);
             }
         }
-    }
 
-    private static Set<IrisPosition> getBallooned(Set<IrisPosition> vset, double radius) {
-        Set<IrisPosition> returnset = new HashSet<>();
-        int ceilrad = (int) Math.ceil(radius);
-
-        for (IrisPosition v : vset) {
-            int tipx = v.getX();
-            int tipy = v.getY();
-            int tipz = v.getZ();
-
-            for (int loopx = tipx - ceilrad; loopx <= tipx + ceilrad; loopx++) {
-                for (int loopy = tipy - ceilrad; loopy <= tipy + ceilrad; loopy++) {
-                    for (int loopz = tipz - ceilrad; loopz <= tipz + ceilrad; loopz++) {
-                        if (hypot(loopx - tipx, loopy - tipy, loopz - tipz) <= radius) {
-                            returnset.add(new IrisPosition(loopx, loopy, loopz));
-                        }
-                    }
-                }
-            }
-        }
-        return returnset;
-    }
-
-    private static Set<IrisPosition> getHollowed(Set<IrisPosition> vset) {
-        Set<IrisPosition> returnset = new KSet<>();
-        for (IrisPosition v : vset) {
-            double x = v.getX();
-            double y = v.getY();
-            double z = v.getZ();
-            if (!(vset.contains(new IrisPosition(x + 1, y, z))
-                    && vset.contains(new IrisPosition(x - 1, y, z))
-                    && vset.contains(new IrisPosition(x, y + 1, z))
-                    && vset.contains(new IrisPosition(x, y - 1, z))
-                    && vset.contains(new IrisPosition(x, y, z + 1))
-                    && vset.contains(new IrisPosition(x, y, z - 1)))) {
-                returnset.add(v);
+        for (int i = -radius; i <= radius; i++) {
+            for (int j = -radius; j <= radius; j++) {
+                cachedChunks.put(Cache.key(i + x, j + z), mantle.getChunk(i + x, j + z));
             }
         }
-        return returnset;
-    }
-
-    private static double hypot(double... pars) {
-        double sum = 0;
-        for (double d : pars) {
-            sum += Math.pow(d, 2);
-        }
-        return Math.sqrt(sum);
     }
 
     private static double lengthSq(double x, double y, double z) {
@@ -152,6 +111,88 @@ public class MantleWriter implements IObjectPlacer {
 
             Matter matter = chunk.getOrCreate(y >> 4);
             matter.slice(matter.getClass(t)).set(x & 15, y & 15, z & 15, t);
+
+            if (t instanceof MatterCavern) {
+                chunk.setCarved(x & 15, y, z & 15, true);
+            }
+        }
+    }
+
+    /**
+     * Set a vertical run of blocks in one column. The chunk and section are only resolved once for
+     * the whole run instead of once per block.
+     *
+     * @param x    the x
+     * @param z    the z
+     * @param minY the lowest y (inclusive)
+     * @param maxY the highest y (inclusive)
+     * @param data the data per block, null values are skipped
+     * @param <T>  the type of data to apply to the mantle
+     */
+    public <T> void setSpan(int x, int z, int minY, int maxY, Function3<Integer, Integer, Integer, T> data) {
+        int cx = x >> 4;
+        int cz = z >> 4;
+        minY = Math.max(minY, 0);
+        maxY = Math.min(maxY, mantle.getWorldHeight() - 1);
+
+        if (minY > maxY || cx < this.x - radius || cx > this.x + radius
+                || cz < this.z - radius || cz > this.z + radius) {
+            return;
+        }
+
+        MantleChunk chunk = cachedChunks.get(Cache.key(cx, cz));
+
+        if (chunk == null) {
+            Iris.error("Mantle Writer Accessed " + cx + "," + cz + " and came up null (and yet within bounds!)");
+            return;
+        }
+
+        Matter matter = null;
+        MatterSlice<T> slice = null;
+        Class<?> type = null;
+        int section = -1;
+
+        for (int y = minY; y <= maxY; y++) {
+            T t = data.apply(x, y, z);
+
+            if (t == null) {
+                continue;
+            }
+
+            if (section != y >> 4) {
+                section = y >> 4;
+                matter = chunk.getOrCreate(section);
+                slice = null;
+            }
+
+            if (slice == null || type != t.getClass()) {
+                type = t.getClass();
+                slice = matter.slice(matter.getClass(t));
+            }
+
+            slice.set(x & 15, y & 15, z & 15, t);
+
+            if (t instanceof MatterCavern) {
+                chunk.setCarved(x & 15, y, z & 15, true);
+            }
+        }
+    }
+
+    /**
+     * Mark a block as part of an object placement. The placement is registered once per plate
+     * and the block only stores the handle.
+     */
+    public void setObject(int x, int y, int z, MatterObjectPlacement placement) {
+        int cx = x >> 4;
+        int cz = z >> 4;
+
+        if (y < 0 || y >= mantle.getWorldHeight()) {
+            return;
+        }
+
+        if (cx >= this.x - radius && cx <= this.x + radius
+                && cz >= this.z - radius && cz <= this.z + radius) {
+            setData(x, y, z, mantle.registerObject(x, z, placement));
         }
     }
 
@@ -252,60 +293,7 @@ public class MantleWriter implements IObjectPlacer {
      * @param <T>  the type of data to apply to the mantle
      */
     public <T> void setElipsoidFunction(int cx, int cy, int cz, double rx, double ry, double rz, boolean fill, Function3<Integer, Integer, Integer, T> data) {
-        rx += 0.5;
-        ry += 0.5;
-        rz += 0.5;
-        final double invRadiusX = 1 / rx;
-        final double invRadiusY = 1 / ry;
-        final double invRadiusZ = 1 / rz;
-        final int ceilRadiusX = (int) Math.ceil(rx);
-        final int ceilRadiusY = (int) Math.ceil(ry);
-        final int ceilRadiusZ = (int) Math.ceil(rz);
-        double nextXn = 0;
-
-        forX:
-        for (int x = 0; x <= ceilRadiusX; ++x) {
-            final double xn = nextXn;
-            nextXn = (x + 1) * invRadiusX;
-            double nextYn = 0;
-            forY:
-            for (int y = 0; y <= ceilRadiusY; ++y) {
-                final double yn = nextYn;
-                nextYn = (y + 1) * invRadiusY;
-                double nextZn = 0;
-                for (int z = 0; z <= ceilRadiusZ; ++z) {
-                    final double zn = nextZn;
-                    nextZn = (z + 1) * invRadiusZ;
-
-                    double distanceSq = lengthSq(xn, yn, zn);
-                    if (distanceSq > 1) {
-                        if (z == 0) {
-                            if (y == 0) {
-                                break forX;
-                            }
-                            break forY;
-                        }
-                        break;
-                    }
-
-                    if (!fill) {
-                        if (lengthSq(nextXn, yn, zn) <= 1 && lengthSq(xn, nextYn, zn) <= 1 && lengthSq(xn, yn, nextZn) <= 1) {
-                            continue;
-                        }
-                    }
-
-                    setData(x + cx, y + cy, z + cz, data.apply(x + cx, y + cy, z + cz));
-                    setData(-x + cx, y + cy, z + cz, data.apply(-x + cx, y + cy, z + cz));
-                    setData(x + cx, -y + cy, z + cz, data.apply(x + cx, -y + cy, z + cz));
-                    setData(x + cx, y + cy, -z + cz, data.apply(x + cx, y + cy, -z + cz));
-                    setData(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz));
-                    setData(-x + cx, -y + cy, z + cz, data.apply(-x + cx, -y + cy, z + cz));
-                    setData(x + cx, -y + cy, -z + cz, data.apply(x + cx, -y + cy, -z + cz));
-                    setData(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz));
-                    setData(-x + cx, -y + cy, -z + cz, data.apply(-x + cx, -y + cy, -z + cz));
-                }
-            }
-        }
+        ShapeRasterizer.elipsoid(cx, cy, cz, rx, ry, rz, fill, (x, z, minY, maxY) -> setSpan(x, z, minY, maxY, data));
     }
 
     public <T> void setElipsoidFunctionWarped(int cx, int cy, int cz, double rx, double ry, double rz, boolean fill, Function3<Integer, Integer, Integer, T> data, RNG rng, IrisData idata, IrisGeneratorStyle style) {
@@ -447,64 +435,7 @@ public class MantleWriter implements IObjectPlacer {
      * @param <T>     the type of data to apply to the mantle
      */
     public <T> void setLineConsumer(List<IrisPosition> vectors, double radius, boolean filled, Function3<Integer, Integer, Integer, T> data) {
-        Set<IrisPosition> vset = new KSet<>();
-
-        for (int i = 0; vectors.size() != 0 && i < vectors.size() - 1; i++) {
-            IrisPosition pos1 = vectors.get(i);
-            IrisPosition pos2 = vectors.get(i + 1);
-            int x1 = pos1.getX();
-            int y1 = pos1.getY();
-            int z1 = pos1.getZ();
-            int x2 = pos2.getX();
-            int y2 = pos2.getY();
-            int z2 = pos2.getZ();
-            int tipx = x1;
-            int tipy = y1;
-            int tipz = z1;
-            int dx = Math.abs(x2 - x1);
-            int dy = Math.abs(y2 - y1);
-            int dz = Math.abs(z2 - z1);
-
-            if (dx + dy + dz == 0) {
-                vset.add(new IrisPosition(tipx, tipy, tipz));
-                continue;
-            }
-
-            int dMax = Math.max(Math.max(dx, dy), dz);
-            if (dMax == dx) {
-                for (int domstep = 0; domstep <= dx; domstep++) {
-                    tipx = x1 + domstep * (x2 - x1 > 0 ? 1 : -1);
-                    tipy = (int) Math.round(y1 + domstep * ((double) dy) / ((double) dx) * (y2 - y1 > 0 ? 1 : -1));
-                    tipz = (int) Math.round(z1 + domstep * ((double) dz) / ((double) dx) * (z2 - z1 > 0 ? 1 : -1));
-
-                    vset.add(new IrisPosition(tipx, tipy, tipz));
-                }
-            } else if (dMax == dy) {
-                for (int domstep = 0; domstep <= dy; domstep++) {
-                    tipy = y1 + domstep * (y2 - y1 > 0 ? 1 : -1);
-                    tipx = (int) Math.round(x1 + domstep * ((double) dx) / ((double) dy) * (x2 - x1 > 0 ? 1 : -1));
-                    tipz = (int) Math.round(z1 + domstep * ((double) dz) / ((double) dy) * (z2 - z1 > 0 ? 1 : -1));
-
-                    vset.add(new IrisPosition(tipx, tipy, tipz));
-                }
-            } else /* if (dMax == dz) */ {
-                for (int domstep = 0; domstep <= dz; domstep++) {
-                    tipz = z1 + domstep * (z2 - z1 > 0 ? 1 : -1);
-                    tipy = (int) Math.round(y1 + domstep * ((double) dy) / ((double) dz) * (y2 - y1 > 0 ? 1 : -1));
-                    tipx = (int) Math.round(x1 + domstep * ((double) dx) / ((double) dz) * (x2 - x1 > 0 ? 1 : -1));
-
-                    vset.add(new IrisPosition(tipx, tipy, tipz));
-                }
-            }
-        }
-
-        vset = getBallooned(vset, radius);
-
-        if (!filled) {
-            vset = getHollowed(vset);
-        }
-
-        setConsumer(vset, data);
+        ShapeRasterizer.line(vectors, radius, filled, (x, z, minY, maxY) -> setSpan(x, z, minY, maxY, data));
     }
 
     /**
@@ -618,6 +549,17 @@ public class MantleWriter implements IObjectPlacer {
         }
     }
 
+    /**
+     * Release the pins this writer holds on its regions, the writer should not be used afterwards
+     */
+    public void close() {
+        for (int i = (x - radius) >> 5; i <= (x + radius) >> 5; i++) {
+            for (int j = (z - radius) >> 5; j <= (z + radius) >> 5; j++) {
+                mantle.unpin(i, j);
+            }
+        }
+    }
+
     public boolean isWithin(Vector pos) {
         return isWithin(pos.getBlockX(), pos.getBlockY(), pos.getBlockZ());
     }
@@ -0,0 +1,410 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.mantle;
+
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.engine.object.IrisPosition;
+import com.volmit.iris.util.collection.KMap;
+
+import java.util.List;
+
+/**
+ * Rasterizes the mantle writer's shapes into vertical spans (one x/z column, an inclusive y range)
+ * instead of a set of positions. Shapes produce exactly the blocks the old position set based
+ * code produced, just without an object per block.
+ */
+public class ShapeRasterizer {
+    @FunctionalInterface
+    public interface SpanConsumer {
+        void accept(int x, int z, int minY, int maxY);
+    }
+
+    private static double lengthSq(double x, double y, double z) {
+        return (x * x) + (y * y) + (z * z);
+    }
+
+    /**
+     * The highest y of an elipsoid quadrant column, or -1 if the column is outside
+     */
+    private static int top(int x, int z, double ix, double iy, double iz, int cry) {
+        double xn = x * ix;
+        double zn = z * iz;
+
+        if (lengthSq(xn, 0, zn) > 1) {
+            return -1;
+        }
+
+        int y = Math.min(cry, (int) (Math.sqrt(Math.max(0, 1 - (xn * xn) - (zn * zn))) / iy));
+
+        while (y > 0 && lengthSq(xn, y * iy, zn) > 1) {
+            y--;
+        }
+
+        while (y < cry && lengthSq(xn, (y + 1) * iy, zn) <= 1) {
+            y++;
+        }
+
+        return y;
+    }
+
+    /**
+     * Rasterize an elipsoid. The radii are grown by half a block like the mantle writer always did.
+     *
+     * @param fill  false to only emit the outer shell
+     * @param spans receives the spans
+     */
+    public static void elipsoid(int cx, int cy, int cz, double rx, double ry, double rz, boolean fill, SpanConsumer spans) {
+        rx += 0.5;
+        ry += 0.5;
+        rz += 0.5;
+        final double ix = 1 / rx;
+        final double iy = 1 / ry;
+        final double iz = 1 / rz;
+        final int crx = (int) Math.ceil(rx);
+        final int cry = (int) Math.ceil(ry);
+        final int crz = (int) Math.ceil(rz);
+
+        for (int x = 0; x <= crx; x++) {
+            for (int z = 0; z <= crz; z++) {
+                int top = top(x, z, ix, iy, iz, cry);
+
+                if (top < 0) {
+                    if (z == 0) {
+                        return;
+                    }
+
+                    break;
+                }
+
+                int bottom = 0;
+
+                if (!fill) {
+                    int inner = Math.min(top(x + 1, z, ix, iy, iz, cry), top(x, z + 1, ix, iy, iz, cry));
+                    bottom = Math.min(inner + 1, top);
+                }
+
+                quadrants(cx, cz, x, z, cy, bottom, top, spans);
+            }
+        }
+    }
+
+    private static void quadrants(int cx, int cz, int x, int z, int cy, int bottom, int top, SpanConsumer spans) {
+        column(cx + x, cz + z, cy, bottom, top, spans);
+
+        if (x != 0) {
+            column(cx - x, cz + z, cy, bottom, top, spans);
+        }
+
+        if (z != 0) {
+            column(cx + x, cz - z, cy, bottom, top, spans);
+
+            if (x != 0) {
+                column(cx - x, cz - z, cy, bottom, top, spans);
+            }
+        }
+    }
+
+    private static void column(int x, int z, int cy, int bottom, int top, SpanConsumer spans) {
+        if (bottom == 0) {
+            spans.accept(x, z, cy - top, cy + top);
+        } else {
+            spans.accept(x, z, cy + bottom, cy + top);
+            spans.accept(x, z, cy - top, cy - bottom);
+        }
+    }
+
+    /**
+     * Rasterize a line through the given points, swept with a sphere of the given radius
+     *
+     * @param points the points
+     * @param radius the radius of the swept sphere
+     * @param filled false to only emit the outer shell
+     * @param spans  receives the spans
+     */
+    public static void line(List<IrisPosition> points, double radius, boolean filled, SpanConsumer spans) {
+        if (points.isEmpty() || radius < 0) {
+            return;
+        }
+
+        int[] tips = tips(points);
+        int count = tips[0];
+
+        if (count == 0) {
+            return;
+        }
+
+        int cr = (int) Math.ceil(radius);
+        int w = (cr * 2) + 1;
+        int[] reach = new int[w * w];
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            int y = tips[(i * 3) + 2];
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+
+        for (int dx = -cr; dx <= cr; dx++) {
+            for (int dz = -cr; dz <= cr; dz++) {
+                reach[((dx + cr) * w) + dz + cr] = reach(dx, dz, cr, radius);
+            }
+        }
+
+        Grid grid = new Grid(minY - cr, maxY + cr);
+
+        for (int i = 0; i < count; i++) {
+            int tx = tips[(i * 3) + 1];
+            int ty = tips[(i * 3) + 2];
+            int tz = tips[(i * 3) + 3];
+
+            for (int dx = -cr; dx <= cr; dx++) {
+                for (int dz = -cr; dz <= cr; dz++) {
+                    int dy = reach[((dx + cr) * w) + dz + cr];
+
+                    if (dy >= 0) {
+                        grid.fill(tx + dx, tz + dz, ty - dy, ty + dy);
+                    }
+                }
+            }
+        }
+
+        grid.emit(!filled, spans);
+    }
+
+    /**
+     * How far a sphere reaches up from its center in the given column, or -1 if it misses it. This
+     * uses the same distance test per block as the old position set did.
+     */
+    private static int reach(int dx, int dz, int cr, double radius) {
+        int h = (dx * dx) + (dz * dz);
+
+        if (Math.sqrt(h) > radius) {
+            return -1;
+        }
+
+        int dy = Math.min(cr, (int) Math.sqrt(Math.max(0, (radius * radius) - h)));
+
+        while (dy > 0 && Math.sqrt(h + (dy * dy)) > radius) {
+            dy--;
+        }
+
+        while (dy < cr && Math.sqrt(h + ((dy + 1) * (dy + 1))) <= radius) {
+            dy++;
+        }
+
+        return dy;
+    }
+
+    /**
+     * Walk each segment of the line along its dominant axis
+     *
+     * @return the count at [0] followed by x, y, z triples
+     */
+    private static int[] tips(List<IrisPosition> points) {
+        int size = 1;
+
+        for (int i = 0; i < points.size() - 1; i++) {
+            IrisPosition a = points.get(i);
+            IrisPosition b = points.get(i + 1);
+            size += 3 * (Math.max(Math.max(Math.abs(b.getX() - a.getX()), Math.abs(b.getY() - a.getY())), Math.abs(b.getZ() - a.getZ())) + 1);
+        }
+
+        int[] tips = new int[size];
+        int c = 0;
+
+        for (int i = 0; i < points.size() - 1; i++) {
+            IrisPosition pos1 = points.get(i);
+            IrisPosition pos2 = points.get(i + 1);
+            int x1 = pos1.getX();
+            int y1 = pos1.getY();
+            int z1 = pos1.getZ();
+            int x2 = pos2.getX();
+            int y2 = pos2.getY();
+            int z2 = pos2.getZ();
+            int dx = Math.abs(x2 - x1);
+            int dy = Math.abs(y2 - y1);
+            int dz = Math.abs(z2 - z1);
+            int sx = x2 - x1 > 0 ? 1 : -1;
+            int sy = y2 - y1 > 0 ? 1 : -1;
+            int sz = z2 - z1 > 0 ? 1 : -1;
+            int dMax = Math.max(Math.max(dx, dy), dz);
+
+            for (int step = 0; step <= dMax; step++) {
+                int o = (c++ * 3) + 1;
+
+                if (dMax == 0) {
+                    tips[o] = x1;
+                    tips[o + 1] = y1;
+                    tips[o + 2] = z1;
+                } else if (dMax == dx) {
+                    tips[o] = x1 + step * sx;
+                    tips[o + 1] = (int) Math.round(y1 + step * ((double) dy) / ((double) dx) * sy);
+                    tips[o + 2] = (int) Math.round(z1 + step * ((double) dz) / ((double) dx) * sz);
+                } else if (dMax == dy) {
+                    tips[o] = (int) Math.round(x1 + step * ((double) dx) / ((double) dy) * sx);
+                    tips[o + 1] = y1 + step * sy;
+                    tips[o + 2] = (int) Math.round(z1 + step * ((double) dz) / ((double) dy) * sz);
+                } else {
+                    tips[o] = (int) Math.round(x1 + step * ((double) dx) / ((double) dz) * sx);
+                    tips[o + 1] = (int) Math.round(y1 + step * ((double) dy) / ((double) dz) * sy);
+                    tips[o + 2] = z1 + step * sz;
+                }
+            }
+        }
+
+        tips[0] = c;
+        return tips;
+    }
+
+    /**
+     * A sparse voxel set stored as one y bitset per column, tiled per chunk
+     */
+    private static class Grid {
+        private final int minY;
+        private final int words;
+        private final KMap<Long, long[]> tiles;
+        private long lastKey;
+        private long[] lastTile;
+
+        private Grid(int minY, int maxY) {
+            this.minY = minY;
+            this.words = ((maxY - minY) >> 6) + 1;
+            this.tiles = new KMap<>();
+        }
+
+        private int offset(int x, int z) {
+            return (((z & 15) << 4) | (x & 15)) * words;
+        }
+
+        private void fill(int x, int z, int y0, int y1) {
+            long key = Cache.key(x >> 4, z >> 4);
+            long[] tile = lastTile;
+
+            if (tile == null || key != lastKey) {
+                tile = tiles.computeIfAbsent(key, (k) -> new long[256 * words]);
+                lastKey = key;
+                lastTile = tile;
+            }
+
+            int o = offset(x, z);
+            int a = y0 - minY;
+            int b = y1 - minY;
+
+            for (int w = a >> 6; w <= b >> 6; w++) {
+                long m = -1L;
+
+                if (w == a >> 6) {
+                    m &= -1L << (a & 63);
+                }
+
+                if (w == b >> 6) {
+                    m &= -1L >>> (63 - (b & 63));
+                }
+
+                tile[o + w] |= m;
+            }
+        }
+
+        private long word(long[] tile, int x, int z, int w) {
+            return tile == null || w < 0 || w >= words ? 0 : tile[offset(x, z) + w];
+        }
+
+        private long neighbour(long[] tile, int cx, int cz, int x, int z, int w) {
+            if ((x >> 4) == cx && (z >> 4) == cz) {
+                return word(tile, x, z, w);
+            }
+
+            return word(tiles.get(Cache.key(x >> 4, z >> 4)), x, z, w);
+        }
+
+        /**
+         * Emit every run of set bits per column, optionally only the ones with at least one of
+         * their six neighbours unset
+         */
+        private void emit(boolean hollow, SpanConsumer spans) {
+            for (Long k : tiles.keySet()) {
+                long[] tile = tiles.get(k);
+                int cx = Cache.keyX(k);
+                int cz = Cache.keyZ(k);
+
+                for (int i = 0; i < 256; i++) {
+                    int x = (cx << 4) | (i & 15);
+                    int z = (cz << 4) | (i >> 4);
+                    int start = -1;
+
+                    for (int w = 0; w < words; w++) {
+                        long b = word(tile, x, z, w);
+
+                        if (hollow && b != 0) {
+                            long up = (b >>> 1) | (word(tile, x, z, w + 1) << 63);
+                            long down = (b << 1) | (word(tile, x, z, w - 1) >>> 63);
+                            b &= ~(up & down
+                                    & neighbour(tile, cx, cz, x + 1, z, w)
+                                    & neighbour(tile, cx, cz, x - 1, z, w)
+                                    & neighbour(tile, cx, cz, x, z + 1, w)
+                                    & neighbour(tile, cx, cz, x, z - 1, w));
+                        }
+
+                        start = runs(b, w << 6, start, x, z, spans);
+                    }
+
+                    if (start >= 0) {
+                        spans.accept(x, z, minY + start, minY + (words << 6) - 1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Emit the runs that end within a word
+         *
+         * @param start the bit a run still open from the previous word started at, or -1
+         * @return the bit the run still open at the end of this word started at, or -1
+         */
+        private int runs(long b, int base, int start, int x, int z, SpanConsumer spans) {
+            int bit = 0;
+
+            while (bit < 64) {
+                if (start < 0) {
+                    long rest = b >>> bit;
+
+                    if (rest == 0) {
+                        return -1;
+                    }
+
+                    bit += Long.numberOfTrailingZeros(rest);
+                    start = base + bit;
+                }
+
+                long rest = ~b >>> bit;
+
+                if (rest == 0) {
+                    return start;
+                }
+
+                bit += Long.numberOfTrailingZeros(rest);
+                spans.accept(x, z, minY + start, minY + base + bit - 1);
+                start = -1;
+            }
+
+            return start;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.mantle.MantleFlag;
 import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.MatterObjectPlacement;
 import com.volmit.iris.util.matter.MatterStructurePOI;
 
 import java.util.Set;
@@ -97,9 +98,9 @@ public class MantleObjectComponent extends IrisMantleComponent {
             }
             int xx = rng.i(x, x + 15);
             int zz = rng.i(z, z + 15);
-            int id = rng.i(0, Integer.MAX_VALUE);
+            MatterObjectPlacement placement = new MatterObjectPlacement(v.getLoadKey(), rng.i(0, Integer.MAX_VALUE), xx, zz);
             v.place(xx, -1, zz, writer, objectPlacement, rng, (b, data) -> {
-                writer.setData(b.getX(), b.getY(), b.getZ(), v.getLoadKey() + "@" + id);
+                writer.setObject(b.getX(), b.getY(), b.getZ(), placement);
                 if (objectPlacement.isDolphinTarget() && objectPlacement.isUnderwater() && B.isStorageChest(data)) {
                     writer.setData(b.getX(), b.getY(), b.getZ(), MatterStructurePOI.BURIED_TREASURE);
                 }
@@ -22,17 +22,16 @@ import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisDepositGenerator;
-import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.engine.object.IrisRegion;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
 import com.volmit.iris.util.data.HeightMap;
 import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.mantle.CarveOccupancy;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.block.data.BlockData;
-import org.bukkit.util.BlockVector;
 
 public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
     private final RNG rng;
@@ -78,11 +77,13 @@ public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
     }
 
     public void generate(IrisDepositGenerator k, Hunk<BlockData> data, RNG rng, int cx, int cz, boolean safe, HeightMap he, ChunkContext context) {
+        CarveOccupancy carved = getEngine().getMantle().getMantle().getChunk(cx, cz).getCarved();
+
         for (int l = 0; l < rng.i(k.getMinPerChunk(), k.getMaxPerChunk()); l++) {
-            IrisObject clump = k.getClump(rng, getData());
+            IrisDepositGenerator.Clump clump = k.getCompiledClump(this.rng, rng, getData());
 
-            int af = (int) Math.floor(clump.getW() / 2D);
-            int bf = (int) Math.floor(16D - (clump.getW() / 2D));
+            int af = (int) Math.floor(clump.getWidth() / 2D);
+            int bf = (int) Math.floor(16D - (clump.getWidth() / 2D));
 
             if (af > bf || af < 0 || bf > 15) {
                 af = 6;
@@ -114,17 +115,18 @@ public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
                 return;
             }
 
-            for (BlockVector j : clump.getBlocks().keySet()) {
-                int nx = j.getBlockX() + x;
-                int ny = j.getBlockY() + h;
-                int nz = j.getBlockZ() + z;
+            for (int j = 0; j < clump.size(); j++) {
+                int nx = clump.getX(j) + x;
+                int ny = clump.getY(j) + h;
+                int nz = clump.getZ(j) + z;
 
-                if (ny > height || nx > 15 || nx < 0 || ny > getEngine().getHeight() || ny < 0 || nz < 0 || nz > 15) {
+                if (ny > height || nx > 15 || nx < 0 || ny >= data.getHeight() || ny < 0 || nz < 0 || nz > 15) {
                     continue;
                 }
 
-                if (!getEngine().getMantle().isCarved((cx << 4) + nx, ny, (cz << 4) + nz)) {
-                    data.set(nx, ny, nz, B.toDeepSlateOre(data.get(nx, ny, nz), clump.getBlocks().get(j)));
+                if (!carved.get(nx, ny, nz)) {
+                    BlockData host = data.getRaw(nx, ny, nz);
+                    data.setRaw(nx, ny, nz, clump.getOre(j, host != null && B.isDeepSlate(host)));
                 }
             }
         }
@@ -18,24 +18,37 @@
 
 package com.volmit.iris.engine.modifier;
 
+import com.volmit.iris.Iris;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.IntHunk;
 import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.block.data.Bisected;
 import org.bukkit.block.data.BlockData;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Removes decorants that cannot stay on what is below them. Each rule only looks at the column it
+ * is in, so every column is scanned on its own until it stops changing instead of rescanning the
+ * whole chunk until nothing in it changes. A column that did not change is never scanned again and
+ * a change never dirties a neighbour. Each task owns one x slice, stages its own columns and keeps
+ * its own counters, so the result does not depend on how the slices are scheduled.
+ */
 public class IrisPerfectionModifier extends EngineAssignedModifier<BlockData> {
-    private static final BlockData AIR = B.get("AIR");
-    private static final BlockData WATER = B.get("WATER");
+    private static final int AIR = BlockStates.id(B.get("AIR"));
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final ChronoLatch reportLatch = new ChronoLatch(60000, false);
 
     public IrisPerfectionModifier(Engine engine) {
         super(engine, "Perfection");
@@ -44,90 +57,132 @@ public class IrisPerfectionModifier extends EngineAssignedModifier<BlockData> {
     @Override
     public void onModify(int x, int z, Hunk<BlockData> output, boolean multicore, ChunkContext context) {
         PrecisionStopwatch p = PrecisionStopwatch.start();
-        AtomicBoolean changed = new AtomicBoolean(true);
-        int passes = 0;
-        AtomicInteger changes = new AtomicInteger();
-        List<Integer> surfaces = new ArrayList<>();
-        List<Integer> ceilings = new ArrayList<>();
-        BurstExecutor burst = burst().burst(multicore);
-        while (changed.get()) {
-            passes++;
-            changed.set(false);
-            for (int i = 0; i < 16; i++) {
-                int finalI = i;
-                burst.queue(() -> {
-                    for (int j = 0; j < 16; j++) {
-                        surfaces.clear();
-                        ceilings.clear();
-                        int top = getHeight(output, finalI, j);
-                        boolean inside = true;
-                        surfaces.add(top);
-
-                        for (int k = top; k >= 0; k--) {
-                            BlockData b = output.get(finalI, k, j);
-                            boolean now = b != null && !(B.isAir(b) || B.isFluid(b));
-
-                            if (now != inside) {
-                                inside = now;
-
-                                if (inside) {
-                                    surfaces.add(k);
-                                } else {
-                                    ceilings.add(k + 1);
-                                }
-                            }
-                        }
-
-                        for (int k : surfaces) {
-                            BlockData tip = output.get(finalI, k, j);
-
-                            if (tip == null) {
-                                continue;
-                            }
-
-                            boolean remove = false;
-                            boolean remove2 = false;
-
-                            if (B.isDecorant(tip)) {
-                                BlockData bel = output.get(finalI, k - 1, j);
-
-                                if (bel == null) {
-                                    remove = true;
-                                } else if (!B.canPlaceOnto(tip.getMaterial(), bel.getMaterial())) {
-                                    remove = true;
-                                } else if (bel instanceof Bisected) {
-                                    BlockData bb = output.get(finalI, k - 2, j);
-                                    if (bb == null || !B.canPlaceOnto(bel.getMaterial(), bb.getMaterial())) {
-                                        remove = true;
-                                        remove2 = true;
-                                    }
-                                }
-
-                                if (remove) {
-                                    changed.set(true);
-                                    changes.getAndIncrement();
-                                    output.set(finalI, k, j, AIR);
-
-                                    if (remove2) {
-                                        changes.getAndIncrement();
-                                        output.set(finalI, k - 1, j, AIR);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                });
-            }
+        long start = System.nanoTime();
+        int[] sliceScans = new int[output.getWidth()];
+        int[] sliceRemovals = new int[output.getWidth()];
+        perfect(output, burst().burst(multicore), sliceScans, sliceRemovals);
+
+        for (int i = 0; i < sliceScans.length; i++) {
+            scans.add(sliceScans[i]);
+            removals.add(sliceRemovals[i]);
         }
 
+        chunks.increment();
+        nanos.add(System.nanoTime() - start);
         getEngine().getMetrics().getPerfection().put(p.getMilliseconds());
+
+        if (reportLatch.flip()) {
+            long c = Math.max(1, chunks.sum());
+            Iris.debug("Perfection: " + Form.f((double) scans.sum() / c, 1) + " column scans, "
+                    + Form.f((double) removals.sum() / c, 2) + " removals, "
+                    + Form.f(nanos.sum() / c) + "ns per chunk");
+        }
+    }
+
+    /**
+     * Perfect a chunk with one task per x slice, then write the changed blocks back
+     *
+     * @param output        the chunk
+     * @param burst         the executor for the slice tasks
+     * @param sliceScans    receives the column scans of each x slice
+     * @param sliceRemovals receives the removed blocks of each x slice
+     */
+    static void perfect(Hunk<BlockData> output, BurstExecutor burst, int[] sliceScans, int[] sliceRemovals) {
+        IntHunk ids = new IntHunk(output.getWidth(), output.getHeight(), output.getDepth());
+
+        for (int i = 0; i < ids.getWidth(); i++) {
+            int finalI = i;
+            burst.queue(() -> {
+                int[] surfaces = new int[ids.getHeight() + 1];
+
+                for (int j = 0; j < ids.getDepth(); j++) {
+                    int removed;
+                    ids.stage(output, finalI, j);
+
+                    do {
+                        removed = scan(ids, finalI, j, surfaces);
+                        sliceScans[finalI]++;
+                        sliceRemovals[finalI] += removed;
+                    } while (removed > 0);
+                }
+            });
+        }
+
+        burst.complete();
+        ids.publish(output);
+    }
+
+    /**
+     * Check every surface of a column once
+     *
+     * @param surfaces a buffer at least height + 1 long
+     * @return the amount of blocks removed
+     */
+    private static int scan(IntHunk ids, int x, int z, int[] surfaces) {
+        int count = 0;
+        int top = getHeight(ids, x, z);
+        boolean inside = true;
+        surfaces[count++] = top;
+
+        for (int k = top; k >= 0; k--) {
+            int b = ids.getId(x, k, z);
+            boolean now = b != 0 && !BlockStates.isAirOrFluid(b);
+
+            if (now != inside) {
+                inside = now;
+
+                if (inside) {
+                    surfaces[count++] = k;
+                }
+            }
+        }
+
+        int removed = 0;
+
+        for (int i = 0; i < count; i++) {
+            int k = surfaces[i];
+            int tip = ids.getId(x, k, z);
+
+            if (tip == 0 || !BlockStates.isDecorant(tip)) {
+                continue;
+            }
+
+            boolean remove = false;
+            boolean remove2 = false;
+            int bel = ids.getId(x, k - 1, z);
+
+            if (bel == 0) {
+                remove = true;
+            } else if (!B.canPlaceOnto(BlockStates.get(tip).getMaterial(), BlockStates.get(bel).getMaterial())) {
+                remove = true;
+            } else if (BlockStates.get(bel) instanceof Bisected) {
+                int bb = ids.getId(x, k - 2, z);
+
+                if (bb == 0 || !B.canPlaceOnto(BlockStates.get(bel).getMaterial(), BlockStates.get(bb).getMaterial())) {
+                    remove = true;
+                    remove2 = true;
+                }
+            }
+
+            if (remove) {
+                removed++;
+                ids.setId(x, k, z, AIR);
+
+                if (remove2) {
+                    removed++;
+                    ids.setId(x, k - 1, z, AIR);
+                }
+            }
+        }
+
+        return removed;
     }
 
-    private int getHeight(Hunk<BlockData> output, int x, int z) {
-        for (int i = output.getHeight() - 1; i >= 0; i--) {
-            BlockData b = output.get(x, i, z);
+    private static int getHeight(IntHunk ids, int x, int z) {
+        for (int i = ids.getHeight() - 1; i >= 0; i--) {
+            int b = ids.getId(x, i, z);
 
-            if (b != null && !B.isAir(b) && !B.isFluid(b)) {
+            if (b != 0 && !BlockStates.isAirOrFluid(b)) {
                 return i;
             }
         }
@@ -33,8 +33,6 @@ import org.bukkit.block.data.MultipleFacing;
 import org.bukkit.block.data.Waterlogged;
 import org.bukkit.block.data.type.Slab;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     private static final BlockData AIR = B.get("AIR");
     private static final BlockData WATER = B.get("WATER");
@@ -45,29 +43,58 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         rng = new RNG(getEngine().getSeedManager().getPost());
     }
 
+    /**
+     * Post every column of the chunk on the calling thread, writing the output hunk directly.
+     * <p>
+     * This used to write through a {@link com.volmit.iris.util.hunk.view.SynchronizedHunkView},
+     * which locks on the output hunk for every write. Dropping it is only safe because no other
+     * stage takes that lock while posting runs. The carve modifier runs in the same burst, but it
+     * never synchronized its writes, so the lock never ordered them against these. If a stage that
+     * writes the output concurrently starts relying on the lock, posting has to take it again.
+     */
     @Override
     public void onModify(int x, int z, Hunk<BlockData> output, boolean multicore, ChunkContext context) {
         PrecisionStopwatch p = PrecisionStopwatch.start();
-        AtomicInteger i = new AtomicInteger();
-        AtomicInteger j = new AtomicInteger();
-        Hunk<BlockData> sync = output.synchronize();
-        for (i.set(0); i.get() < output.getWidth(); i.getAndIncrement()) {
-            for (j.set(0); j.get() < output.getDepth(); j.getAndIncrement()) {
-                int ii = i.get();
-                int jj = j.get();
-                post(ii, jj, sync, ii + x, jj + z, context);
+        int w = output.getWidth();
+        int d = output.getDepth();
+        int[] heights = heights(x, z, w, d);
+
+        for (int i = 0; i < w; i++) {
+            for (int j = 0; j < d; j++) {
+                post(i, j, output, i + x, j + z, context, heights, w + 2);
             }
         }
 
         getEngine().getMetrics().getPost().put(p.getMilliseconds());
     }
 
-    private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, ChunkContext context) {
-        int h = getEngine().getMantle().trueHeight(x, z);
-        int ha = getEngine().getMantle().trueHeight(x + 1, z);
-        int hb = getEngine().getMantle().trueHeight(x, z + 1);
-        int hc = getEngine().getMantle().trueHeight(x - 1, z);
-        int hd = getEngine().getMantle().trueHeight(x, z - 1);
+    /**
+     * Read the true height of the chunk and a one block apron around it once. Every column needs
+     * its own height and the height of its four neighbours, so this replaces five height stream
+     * lookups per column (some of them into neighbouring chunks) with array reads.
+     *
+     * @return the heights, indexed ((z + 1) * (w + 2)) + x + 1 relative to the chunk
+     */
+    private int[] heights(int x, int z, int w, int d) {
+        int stride = w + 2;
+        int[] heights = new int[stride * (d + 2)];
+
+        for (int j = -1; j <= d; j++) {
+            for (int i = -1; i <= w; i++) {
+                heights[((j + 1) * stride) + i + 1] = getEngine().getMantle().trueHeight(x + i, z + j);
+            }
+        }
+
+        return heights;
+    }
+
+    private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, ChunkContext context, int[] heights, int stride) {
+        int o = ((currentPostZ + 1) * stride) + currentPostX + 1;
+        int h = heights[o];
+        int ha = heights[o + 1];
+        int hb = heights[o + stride];
+        int hc = heights[o - 1];
+        int hd = heights[o - stride];
 
         // Floating Nibs
         int g = 0;
@@ -83,7 +83,7 @@ public class IrisCavePlacer implements IRare {
 
         if (y == -1) {
             int h = (int) caveStartHeight.get(rng, x, z, data);
-            int ma = breakSurface ? h : (int) (engine.getComplex().getHeightStream().get(x, z) - 9);
+            int ma = breakSurface ? h : (int) (engine.getComplex().getHeightStream().getDouble(x, z) - 9);
             y = Math.min(h, ma);
         }
 
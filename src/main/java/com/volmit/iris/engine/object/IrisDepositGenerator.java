@@ -22,9 +22,11 @@ import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.engine.data.cache.AtomicCache;
 import com.volmit.iris.engine.object.annotations.*;
 import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.data.B;
 import com.volmit.iris.util.math.RNG;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 import org.bukkit.block.data.BlockData;
@@ -39,6 +41,7 @@ import org.bukkit.util.BlockVector;
 public class IrisDepositGenerator {
     private final transient AtomicCache<KList<IrisObject>> objects = new AtomicCache<>();
     private final transient AtomicCache<KList<BlockData>> blockData = new AtomicCache<>();
+    private final transient AtomicCache<KList<Clump>> compiledClumps = new AtomicCache<>();
     @Required
     @MinNumber(0)
     @MaxNumber(8192) // TODO: WARNING HEIGHT
@@ -79,7 +82,36 @@ public class IrisDepositGenerator {
     private int varience = 3;
 
     public IrisObject getClump(RNG rng, IrisData rdata) {
-        KList<IrisObject> objects = this.objects.aquire(() ->
+        KList<IrisObject> objects = getClumps(rng, rdata);
+        return objects.get(rng.i(0, objects.size() - 1));
+    }
+
+    /**
+     * Pick one of the compiled clump variants
+     *
+     * @param variants the rng the variants are generated with the first time (only its seed matters)
+     * @param pick     the rng used to pick a variant
+     * @param rdata    the data
+     * @return the clump
+     */
+    public Clump getCompiledClump(RNG variants, RNG pick, IrisData rdata) {
+        KList<Clump> clumps = compile(variants, rdata);
+        return clumps.get(pick.i(0, clumps.size() - 1));
+    }
+
+    /**
+     * Generate and compile the clump variants of this generator if that did not happen yet
+     *
+     * @param variants the rng the variants are generated with (only its seed matters)
+     * @param rdata    the data
+     * @return the compiled variants
+     */
+    public KList<Clump> compile(RNG variants, IrisData rdata) {
+        return compiledClumps.aquire(() -> getClumps(variants, rdata).convert(Clump::new));
+    }
+
+    private KList<IrisObject> getClumps(RNG rng, IrisData rdata) {
+        return this.objects.aquire(() ->
         {
             RNG rngv = rng.nextParallelRNG(3957778);
             KList<IrisObject> objectsf = new KList<>();
@@ -90,7 +122,6 @@ public class IrisDepositGenerator {
 
             return objectsf;
         });
-        return objects.get(rng.i(0, objects.size() - 1));
     }
 
     public int getMaxDimension() {
@@ -137,4 +168,72 @@ public class IrisDepositGenerator {
             return blockData;
         });
     }
+
+    /**
+     * A clump flattened into packed block offsets and palette indices. The ore variant for
+     * deepslate and for everything else is resolved once per palette entry.
+     */
+    public static class Clump {
+        private static final int BIAS = 512;
+        @Getter
+        private final int width;
+        private final int[] offsets;
+        private final int[] palette;
+        private final BlockData[] normal;
+        private final BlockData[] deepslate;
+
+        public Clump(IrisObject object) {
+            KList<BlockData> unique = new KList<>();
+            this.width = object.getW();
+            this.offsets = new int[object.getBlocks().size()];
+            this.palette = new int[offsets.length];
+            int i = 0;
+
+            for (BlockVector j : object.getBlocks().keySet()) {
+                BlockData b = object.getBlocks().get(j);
+                int p = unique.indexOf(b);
+
+                if (p < 0) {
+                    p = unique.size();
+                    unique.add(b);
+                }
+
+                offsets[i] = ((j.getBlockX() + BIAS) << 20) | ((j.getBlockY() + BIAS) << 10) | (j.getBlockZ() + BIAS);
+                palette[i++] = p;
+            }
+
+            this.normal = new BlockData[unique.size()];
+            this.deepslate = new BlockData[unique.size()];
+
+            for (int j = 0; j < unique.size(); j++) {
+                normal[j] = B.toDeepSlateOre(false, unique.get(j));
+                deepslate[j] = B.toDeepSlateOre(true, unique.get(j));
+            }
+        }
+
+        public int size() {
+            return offsets.length;
+        }
+
+        public int getX(int i) {
+            return (offsets[i] >>> 20) - BIAS;
+        }
+
+        public int getY(int i) {
+            return ((offsets[i] >>> 10) & 1023) - BIAS;
+        }
+
+        public int getZ(int i) {
+            return (offsets[i] & 1023) - BIAS;
+        }
+
+        /**
+         * @param i         the block
+         * @param deepslate true if the ore replaces deepslate
+         * @return the ore to place
+         */
+        public BlockData getOre(int i, boolean deepslate) {
+            return deepslate ? this.deepslate[palette[i]] : normal[palette[i]];
+        }
+    }
 }
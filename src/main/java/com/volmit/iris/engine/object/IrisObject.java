@@ -80,6 +80,7 @@ public class IrisObject extends IrisRegistrant {
     @Setter
     protected transient AtomicCache<AxisAlignedBB> aabb = new AtomicCache<>();
     private KMap<BlockVector, BlockData> blocks;
+    private ObjectBlockStore store;
     private KMap<BlockVector, TileData<? extends TileState>> states;
     @Getter
     @Setter
@@ -267,6 +268,7 @@ public class IrisObject extends IrisRegistrant {
         }
 
         burst.complete();
+        compact();
         smartBored = true;
         lock.unlock();
         Iris.debug("Smart Bore: " + getLoadKey() + " in " + Form.duration(p.getMilliseconds(), 2) + " (" + Form.f(applied.get()) + ")");
@@ -276,10 +278,8 @@ public class IrisObject extends IrisRegistrant {
         IrisObject o = new IrisObject(w, h, d);
         o.setLoadKey(o.getLoadKey());
         o.setCenter(getCenter().clone());
-
-        for (BlockVector i : getBlocks().keySet()) {
-            o.getBlocks().put(i.clone(), Objects.requireNonNull(getBlocks().get(i)).clone());
-        }
+        o.store = getStore();
+        o.blocks = null;
 
         for (BlockVector i : getStates().keySet()) {
             o.getStates().put(i.clone(), Objects.requireNonNull(getStates().get(i)).clone());
@@ -295,11 +295,14 @@ public class IrisObject extends IrisRegistrant {
         this.d = din.readInt();
         center = new BlockVector(w / 2, h / 2, d / 2);
         int s = din.readInt();
+        ObjectBlockStore.Builder b = new ObjectBlockStore.Builder(s);
 
         for (int i = 0; i < s; i++) {
-            getBlocks().put(new BlockVector(din.readShort(), din.readShort(), din.readShort()), B.get(din.readUTF()));
+            b.add(din.readShort(), din.readShort(), din.readShort(), B.get(din.readUTF()));
         }
 
+        setStore(b.build());
+
         try {
             int size = din.readInt();
 
@@ -323,18 +326,21 @@ public class IrisObject extends IrisRegistrant {
         center = new BlockVector(w / 2, h / 2, d / 2);
         int s = din.readShort();
         int i;
-        KList<String> palette = new KList<>();
+        KList<BlockData> palette = new KList<>();
 
         for (i = 0; i < s; i++) {
-            palette.add(din.readUTF());
+            palette.add(B.get(din.readUTF()));
         }
 
         s = din.readInt();
+        ObjectBlockStore.Builder b = new ObjectBlockStore.Builder(s);
 
         for (i = 0; i < s; i++) {
-            getBlocks().put(new BlockVector(din.readShort(), din.readShort(), din.readShort()), B.get(palette.get(din.readShort())));
+            b.add(din.readShort(), din.readShort(), din.readShort(), palette.get(din.readShort()));
         }
 
+        setStore(b.build());
+
         s = din.readInt();
 
         for (i = 0; i < s; i++) {
@@ -348,25 +354,24 @@ public class IrisObject extends IrisRegistrant {
         dos.writeInt(h);
         dos.writeInt(d);
         dos.writeUTF("Iris V2 IOB;");
-        KList<String> palette = new KList<>();
+        ObjectBlockStore s = getStore();
+        dos.writeShort(s.getPaletteSize());
 
-        for (BlockData i : getBlocks().values()) {
-            palette.addIfMissing(i.getAsString());
+        for (int i = 0; i < s.getPaletteSize(); i++) {
+            dos.writeUTF(s.getPalette(i).getAsString());
         }
 
-        dos.writeShort(palette.size());
-
-        for (String i : palette) {
-            dos.writeUTF(i);
-        }
+        dos.writeInt(s.size());
 
-        dos.writeInt(getBlocks().size());
+        for (int i = 0; i < s.cursors(); i++) {
+            int id = s.getPaletteIndex(i);
 
-        for (BlockVector i : getBlocks().keySet()) {
-            dos.writeShort(i.getBlockX());
-            dos.writeShort(i.getBlockY());
-            dos.writeShort(i.getBlockZ());
-            dos.writeShort(palette.indexOf(getBlocks().get(i).getAsString()));
+            if (id >= 0) {
+                dos.writeShort(s.getX(i));
+                dos.writeShort(s.getY(i));
+                dos.writeShort(s.getZ(i));
+                dos.writeShort(id);
+            }
         }
 
         dos.writeInt(getStates().size());
@@ -670,6 +675,10 @@ public class IrisObject extends IrisRegistrant {
         y += yrand;
         readLock.lock();
 
+        ObjectBlockStore s = getStore();
+        ObjectRotationCache.Variant rotated = ObjectRotationCache.get(s, config.getRotation(), spinx, spiny, spinz);
+        BlockVector offset = config.getTranslate().translate(new BlockVector(0, 0, 0), config.getRotation(), spinx, spiny, spinz);
+        KMap<BlockVector, TileData<? extends TileState>> tiles = getStates();
         KMap<BlockVector, String> markers = null;
 
         try {
@@ -684,12 +693,12 @@ public class IrisObject extends IrisRegistrant {
 
                     int max = j.getMaximumMarkers();
 
-                    for (BlockVector i : getBlocks().k().shuffle()) {
+                    for (BlockVector i : s.keys().shuffle()) {
                         if (max <= 0) {
                             break;
                         }
 
-                        BlockData data = getBlocks().get(i);
+                        BlockData data = s.get(i.getBlockX(), i.getBlockY(), i.getBlockZ());
 
                         for (BlockData k : j.getMark(rdata)) {
                             if (max <= 0) {
@@ -697,8 +706,8 @@ public class IrisObject extends IrisRegistrant {
                             }
 
                             if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
-                                boolean a = !blocks.containsKey(new BlockVector(i.clone().add(new BlockVector(0, 1, 0))));
-                                boolean fff = !blocks.containsKey(new BlockVector(i.clone().add(new BlockVector(0, 2, 0))));
+                                boolean a = !s.contains(i.getBlockX(), i.getBlockY() + 1, i.getBlockZ());
+                                boolean fff = !s.contains(i.getBlockX(), i.getBlockY() + 2, i.getBlockZ());
 
                                 if (!marker.isEmptyAbove() || (a && fff)) {
                                     markers.put(i, j.getMarker());
@@ -710,31 +719,25 @@ public class IrisObject extends IrisRegistrant {
                 }
             }
 
-            for (BlockVector g : getBlocks().keySet()) {
-                BlockData d;
-                TileData<? extends TileState> tile = null;
-
-                try {
-                    d = getBlocks().get(g);
-                    tile = getStates().get(g);
-                } catch (Throwable e) {
-                    Iris.reportError(e);
-                    Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (cme)");
-                    d = AIR;
+            for (int n = 0; n < rotated.size(); n++) {
+                int cursor = rotated.getCursor(n);
+                int id = s.getPaletteIndex(cursor);
+                BlockVector g = markers != null || !tiles.isEmpty() ? s.getVector(cursor) : null;
+                TileData<? extends TileState> tile = g == null ? null : tiles.get(g);
+                double ix = rotated.getX(n) + offset.getX();
+                double iy = rotated.getY(n) + offset.getY();
+                double iz = rotated.getZ(n) + offset.getZ();
+                BlockData data = s.getPalette(id);
+
+                if (stilting && (int) Math.floor(iy) < lowest && !B.isAir(data)) {
+                    lowest = (int) Math.floor(iy);
                 }
 
-                if (d == null) {
-                    Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (null)");
-                    d = AIR;
-                }
-
-                BlockVector i = g.clone();
-                BlockData data = d.clone();
-                i = config.getRotation().rotate(i.clone(), spinx, spiny, spinz).clone();
-                i = config.getTranslate().translate(i.clone(), config.getRotation(), spinx, spiny, spinz).clone();
-
-                if (stilting && i.getBlockY() < lowest && !B.isAir(data)) {
-                    lowest = i.getBlockY();
+                if (config.getEdit().isEmpty()) {
+                    data = rotated.getRotated(id);
+                    data = data == null ? null : data.clone();
+                } else {
+                    data = data.clone();
                 }
 
                 if (placer.isPreventingDecay() && (data) instanceof Leaves && !((Leaves) (data)).isPersistent()) {
@@ -745,7 +748,7 @@ public class IrisObject extends IrisRegistrant {
                     if (rng.chance(j.getChance())) {
                         for (BlockData k : j.getFind(rdata)) {
                             if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
-                                BlockData newData = j.getReplace(rng, i.getX() + x, i.getY() + y, i.getZ() + z, rdata).clone();
+                                BlockData newData = j.getReplace(rng, ix + x, iy + y, iz + z, rdata).clone();
 
                                 if (newData.getMaterial() == data.getMaterial())
                                     data = data.merge(newData);
@@ -763,19 +766,26 @@ public class IrisObject extends IrisRegistrant {
                     }
                 }
 
-                data = config.getRotation().rotate(data, spinx, spiny, spinz);
-                xx = x + (int) Math.round(i.getX());
+                if (config.getEdit().isNotEmpty()) {
+                    data = config.getRotation().rotate(data, spinx, spiny, spinz);
+                }
 
-                int yy = y + (int) Math.round(i.getY());
-                zz = z + (int) Math.round(i.getZ());
+                if (data == null) {
+                    continue;
+                }
+
+                xx = x + (int) Math.round(ix);
+
+                int yy = y + (int) Math.round(iy);
+                zz = z + (int) Math.round(iz);
 
                 if (warped) {
-                    xx += config.warp(rng, i.getX() + x, i.getY() + y, i.getZ() + z, getLoader());
-                    zz += config.warp(rng, i.getZ() + z, i.getY() + y, i.getX() + x, getLoader());
+                    xx += config.warp(rng, ix + x, iy + y, iz + z, getLoader());
+                    zz += config.warp(rng, iz + z, iy + y, ix + x, getLoader());
                 }
 
                 if (yv < 0 && (config.getMode().equals(ObjectPlaceMode.PAINT)) && !B.isVineBlock(data)) {
-                    yy = (int) Math.round(i.getY()) + Math.floorDiv(h, 2) + placer.getHighest(xx, zz, getLoader(), config.isUnderwater());
+                    yy = (int) Math.round(iy) + Math.floorDiv(h, 2) + placer.getHighest(xx, zz, getLoader(), config.isUnderwater());
                 }
 
                 if (heightmap != null) {
@@ -834,39 +844,29 @@ public class IrisObject extends IrisRegistrant {
         if (stilting) {
             readLock.lock();
             IrisStiltSettings settings = config.getStiltSettings();
-            for (BlockVector g : getBlocks().keySet()) {
+            for (int n = 0; n < rotated.size(); n++) {
                 BlockData d;
 
-                if (settings == null || settings.getPalette() == null) {
-                    try {
-                        d = getBlocks().get(g);
-                    } catch (Throwable e) {
-                        Iris.reportError(e);
-                        Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (stilt cme)");
-                        d = AIR;
-                    }
-
-                    if (d == null) {
-                        Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (stilt null)");
-                        d = AIR;
-                    }
-                } else
+                if (settings != null && settings.getPalette() != null) {
                     d = config.getStiltSettings().getPalette().get(rng, x, y, z, rdata);
+                    d = config.getRotation().rotate(d, spinx, spiny, spinz);
+                } else {
+                    d = rotated.getRotated(s.getPaletteIndex(rotated.getCursor(n)));
+                    d = d == null ? null : d.clone();
+                }
 
+                double ix = rotated.getX(n) + offset.getX();
+                double iy = rotated.getY(n) + offset.getY();
+                double iz = rotated.getZ(n) + offset.getZ();
 
-                BlockVector i = g.clone();
-                i = config.getRotation().rotate(i.clone(), spinx, spiny, spinz).clone();
-                i = config.getTranslate().translate(i.clone(), config.getRotation(), spinx, spiny, spinz).clone();
-                d = config.getRotation().rotate(d, spinx, spiny, spinz);
-
-                if (i.getBlockY() != lowest)
+                if ((int) Math.floor(iy) != lowest || d == null)
                     continue;
 
                 for (IrisObjectReplace j : config.getEdit()) {
                     if (rng.chance(j.getChance())) {
                         for (BlockData k : j.getFind(rdata)) {
                             if (j.isExact() ? k.matches(d) : k.getMaterial().equals(d.getMaterial())) {
-                                BlockData newData = j.getReplace(rng, i.getX() + x, i.getY() + y, i.getZ() + z, rdata).clone();
+                                BlockData newData = j.getReplace(rng, ix + x, iy + y, iz + z, rdata).clone();
 
                                 if (newData.getMaterial() == d.getMaterial()) {
                                     d = d.merge(newData);
@@ -881,12 +881,12 @@ public class IrisObject extends IrisRegistrant {
                 if (d == null || B.isAir(d))
                     continue;
 
-                xx = x + (int) Math.round(i.getX());
-                zz = z + (int) Math.round(i.getZ());
+                xx = x + (int) Math.round(ix);
+                zz = z + (int) Math.round(iz);
 
                 if (warped) {
-                    xx += config.warp(rng, i.getX() + x, i.getY() + y, i.getZ() + z, getLoader());
-                    zz += config.warp(rng, i.getZ() + z, i.getY() + y, i.getX() + x, getLoader());
+                    xx += config.warp(rng, ix + x, iy + y, iz + z, getLoader());
+                    zz += config.warp(rng, iz + z, iy + y, ix + x, getLoader());
                 }
 
                 int highest = placer.getHighest(xx, zz, getLoader(), true);
@@ -946,11 +946,16 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public void rotate(IrisObjectRotation r, int spinx, int spiny, int spinz) {
-        KMap<BlockVector, BlockData> d = new KMap<>();
+        ObjectBlockStore s = getStore();
+        ObjectBlockStore.Builder b = new ObjectBlockStore.Builder(s.size());
 
-        for (BlockVector i : getBlocks().keySet()) {
-            d.put(r.rotate(i.clone(), spinx, spiny, spinz), r.rotate(getBlocks().get(i).clone(),
-                    spinx, spiny, spinz));
+        for (int i = 0; i < s.cursors(); i++) {
+            BlockData data = s.getData(i);
+
+            if (data != null) {
+                BlockVector v = r.rotate(s.getVector(i), spinx, spiny, spinz);
+                b.add((int) Math.round(v.getX()), (int) Math.round(v.getY()), (int) Math.round(v.getZ()), r.rotate(data.clone(), spinx, spiny, spinz));
+            }
         }
 
         KMap<BlockVector, TileData<? extends TileState>> dx = new KMap<>();
@@ -959,14 +964,23 @@ public class IrisObject extends IrisRegistrant {
             dx.put(r.rotate(i.clone(), spinx, spiny, spinz), getStates().get(i));
         }
 
-        blocks = d;
+        setStore(b.build());
         states = dx;
     }
 
     public void place(Location at) {
-        for (BlockVector i : getBlocks().keySet()) {
+        ObjectBlockStore s = getStore();
+
+        for (int n = 0; n < s.cursors(); n++) {
+            BlockData data = s.getData(n);
+
+            if (data == null) {
+                continue;
+            }
+
+            BlockVector i = s.getVector(n);
             Block b = at.clone().add(0, getCenter().getY(), 0).add(i).getBlock();
-            b.setBlockData(Objects.requireNonNull(getBlocks().get(i)), false);
+            b.setBlockData(data, false);
 
             if (getStates().containsKey(i)) {
                 Iris.info(Objects.requireNonNull(states.get(i)).toString());
@@ -978,9 +992,18 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public void placeCenterY(Location at) {
-        for (BlockVector i : getBlocks().keySet()) {
+        ObjectBlockStore s = getStore();
+
+        for (int n = 0; n < s.cursors(); n++) {
+            BlockData data = s.getData(n);
+
+            if (data == null) {
+                continue;
+            }
+
+            BlockVector i = s.getVector(n);
             Block b = at.clone().add(getCenter().getX(), getCenter().getY(), getCenter().getZ()).add(i).getBlock();
-            b.setBlockData(Objects.requireNonNull(getBlocks().get(i)), false);
+            b.setBlockData(data, false);
 
             if (getStates().containsKey(i)) {
                 Objects.requireNonNull(getStates().get(i)).toBukkitTry(b.getState());
@@ -988,16 +1011,55 @@ public class IrisObject extends IrisRegistrant {
         }
     }
 
+    /**
+     * Get the blocks of this object as an editable map. The compact store is dropped since
+     * the map may be changed after this, it is rebuilt from the map on the next placement.
+     *
+     * @return the block map
+     */
     public synchronized KMap<BlockVector, BlockData> getBlocks() {
+        if (blocks == null) {
+            blocks = store == null ? new KMap<>() : store.toMap();
+        }
+
+        store = null;
         return blocks;
     }
 
+    /**
+     * Get the compact (read only) blocks of this object
+     *
+     * @return the block store
+     */
+    public synchronized ObjectBlockStore getStore() {
+        if (store == null) {
+            store = ObjectBlockStore.from(blocks == null ? new KMap<>() : blocks);
+        }
+
+        return store;
+    }
+
+    /**
+     * Drop the editable block map and only keep the compact store
+     */
+    public synchronized void compact() {
+        getStore();
+        blocks = null;
+    }
+
+    private synchronized void setStore(ObjectBlockStore store) {
+        this.store = store;
+        this.blocks = null;
+    }
+
     public synchronized KMap<BlockVector, TileData<? extends TileState>> getStates() {
         return states;
     }
 
     public void unplaceCenterY(Location at) {
-        for (BlockVector i : getBlocks().keySet()) {
+        ObjectBlockStore s = getStore();
+
+        for (BlockVector i : s.keys()) {
             at.clone().add(getCenter().getX(), getCenter().getY(), getCenter().getZ()).add(i).getBlock().setBlockData(AIR, false);
         }
     }
@@ -1026,10 +1088,15 @@ public class IrisObject extends IrisRegistrant {
 
         IrisObject oo = new IrisObject((int) Math.ceil((w * scale) + (scale * 2)), (int) Math.ceil((h * scale) + (scale * 2)), (int) Math.ceil((d * scale) + (scale * 2)));
 
-        for (Map.Entry<BlockVector, BlockData> entry : blocks.entrySet()) {
-            BlockData bd = entry.getValue();
-            placeBlock.put(entry.getKey().clone().add(HALF).subtract(center)
-                    .multiply(scale).add(sm1).toBlockVector(), bd);
+        ObjectBlockStore s = getStore();
+
+        for (int i = 0; i < s.cursors(); i++) {
+            BlockData bd = s.getData(i);
+
+            if (bd != null) {
+                placeBlock.put(s.getVector(i).add(HALF).subtract(center)
+                        .multiply(scale).add(sm1).toBlockVector(), bd);
+            }
         }
 
         for (Map.Entry<BlockVector, BlockData> entry : placeBlock.entrySet()) {
@@ -1051,6 +1118,7 @@ public class IrisObject extends IrisRegistrant {
             }
         }
 
+        oo.compact();
         return oo;
     }
 
@@ -1155,7 +1223,7 @@ public class IrisObject extends IrisRegistrant {
 
         double d = Double.MAX_VALUE;
 
-        for (Map.Entry<BlockVector, BlockData> entry : blocks.entrySet()) {
+        for (Map.Entry<BlockVector, BlockData> entry : getBlocks().entrySet()) {
             BlockData dat = entry.getValue();
 
             if (dat.getMaterial().isAir()) {
@@ -1173,8 +1241,8 @@ public class IrisObject extends IrisRegistrant {
         return r;
     }
 
-    public int volume() {
-        return blocks.size();
+    public synchronized int volume() {
+        return blocks != null ? blocks.size() : store == null ? 0 : store.size();
     }
 
     @Override
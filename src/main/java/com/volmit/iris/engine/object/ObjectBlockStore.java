@@ -0,0 +1,329 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import lombok.EqualsAndHashCode;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.BlockVector;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable compact storage of the blocks of an object. Blocks are kept as a palette of unique
+ * block data plus a char index per block (0 meaning empty). Dense objects index the whole bounding
+ * box, hollow objects keep a sorted list of box positions next to the indexes instead.
+ * <p>
+ * Blocks are visited through cursors. For dense stores every cell of the box is a cursor (empty
+ * cells return null data), for sparse stores every cursor is a block.
+ */
+@EqualsAndHashCode
+public class ObjectBlockStore {
+    private final BlockData[] palette;
+    private final char[] indexes;
+    private final int[] positions;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeZ;
+    private final int count;
+
+    private ObjectBlockStore(BlockData[] palette, char[] indexes, int[] positions, int minX, int minY, int minZ, int sizeX, int sizeZ, int count) {
+        this.palette = palette;
+        this.indexes = indexes;
+        this.positions = positions;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.count = count;
+    }
+
+    public static ObjectBlockStore from(Map<BlockVector, BlockData> blocks) {
+        Builder b = new Builder(blocks.size());
+
+        for (Map.Entry<BlockVector, BlockData> i : blocks.entrySet()) {
+            b.add(i.getKey().getBlockX(), i.getKey().getBlockY(), i.getKey().getBlockZ(), i.getValue());
+        }
+
+        return b.build();
+    }
+
+    /**
+     * Rough heap size of the same blocks kept as a KMap of BlockVector to cloned BlockData
+     *
+     * @param blocks the amount of blocks
+     * @return the estimated size in bytes
+     */
+    public static long estimateMapSize(int blocks) {
+        return blocks * (48L + 40L + 64L);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public boolean isDense() {
+        return positions == null;
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    public int cursors() {
+        return indexes.length;
+    }
+
+    public BlockData getData(int cursor) {
+        char c = indexes[cursor];
+        return c == 0 ? null : palette[c - 1];
+    }
+
+    /**
+     * Get the palette index at a cursor
+     *
+     * @param cursor the cursor
+     * @return the index or -1 if the cursor is empty
+     */
+    public int getPaletteIndex(int cursor) {
+        return indexes[cursor] - 1;
+    }
+
+    public BlockData getPalette(int index) {
+        return palette[index];
+    }
+
+    public int getX(int cursor) {
+        return minX + (position(cursor) % sizeX);
+    }
+
+    public int getY(int cursor) {
+        return minY + (position(cursor) / (sizeX * sizeZ));
+    }
+
+    public int getZ(int cursor) {
+        return minZ + ((position(cursor) / sizeX) % sizeZ);
+    }
+
+    public BlockVector getVector(int cursor) {
+        return new BlockVector(getX(cursor), getY(cursor), getZ(cursor));
+    }
+
+    public BlockData get(int x, int y, int z) {
+        x -= minX;
+        y -= minY;
+        z -= minZ;
+
+        if (count == 0 || x < 0 || z < 0 || y < 0 || x >= sizeX || z >= sizeZ) {
+            return null;
+        }
+
+        long p = x + ((long) z * sizeX) + ((long) y * sizeX * sizeZ);
+
+        if (p > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        int cursor = positions == null ? (int) p : Arrays.binarySearch(positions, (int) p);
+        return cursor >= 0 && cursor < indexes.length ? getData(cursor) : null;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return get(x, y, z) != null;
+    }
+
+    public KList<BlockVector> keys() {
+        KList<BlockVector> keys = new KList<>(count);
+
+        for (int i = 0; i < cursors(); i++) {
+            if (indexes[i] != 0) {
+                keys.add(getVector(i));
+            }
+        }
+
+        return keys;
+    }
+
+    public KList<BlockData> values() {
+        KList<BlockData> values = new KList<>(count);
+
+        for (int i = 0; i < cursors(); i++) {
+            if (indexes[i] != 0) {
+                values.add(palette[indexes[i] - 1]);
+            }
+        }
+
+        return values;
+    }
+
+    public KMap<BlockVector, BlockData> toMap() {
+        KMap<BlockVector, BlockData> map = new KMap<>();
+
+        for (int i = 0; i < cursors(); i++) {
+            BlockData data = getData(i);
+
+            if (data != null) {
+                map.put(getVector(i), data.clone());
+            }
+        }
+
+        return map;
+    }
+
+    /**
+     * Rough heap size of this store
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateSize() {
+        return 64 + (palette.length * 72L) + (indexes.length * 2L) + (positions == null ? 0 : positions.length * 4L);
+    }
+
+    private int position(int cursor) {
+        return positions == null ? cursor : positions[cursor];
+    }
+
+    /**
+     * Collects blocks to build a store. Adding the same position twice keeps the last block.
+     */
+    public static class Builder {
+        private final KMap<BlockData, Integer> paletteIndex;
+        private final KList<BlockData> palette;
+        private int[] xyz;
+        private char[] ids;
+        private int size;
+
+        public Builder(int expected) {
+            this.paletteIndex = new KMap<>();
+            this.palette = new KList<>();
+            this.xyz = new int[Math.max(expected, 1) * 3];
+            this.ids = new char[Math.max(expected, 1)];
+        }
+
+        public Builder add(int x, int y, int z, BlockData data) {
+            if (data == null) {
+                return this;
+            }
+
+            Integer id = paletteIndex.get(data);
+
+            if (id == null) {
+                if (palette.size() >= Character.MAX_VALUE - 1) {
+                    throw new IllegalStateException("Object palette exceeds " + (Character.MAX_VALUE - 1) + " block states");
+                }
+
+                palette.add(data);
+                id = palette.size();
+                paletteIndex.put(data, id);
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                xyz = Arrays.copyOf(xyz, size * 6);
+            }
+
+            xyz[size * 3] = x;
+            xyz[size * 3 + 1] = y;
+            xyz[size * 3 + 2] = z;
+            ids[size++] = (char) (int) id;
+            return this;
+        }
+
+        public ObjectBlockStore build() {
+            BlockData[] p = palette.toArray(new BlockData[0]);
+
+            if (size == 0) {
+                return new ObjectBlockStore(p, new char[0], null, 0, 0, 0, 1, 1, 0);
+            }
+
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+            for (int i = 0; i < size; i++) {
+                minX = Math.min(minX, xyz[i * 3]);
+                minY = Math.min(minY, xyz[i * 3 + 1]);
+                minZ = Math.min(minZ, xyz[i * 3 + 2]);
+                maxX = Math.max(maxX, xyz[i * 3]);
+                maxY = Math.max(maxY, xyz[i * 3 + 1]);
+                maxZ = Math.max(maxZ, xyz[i * 3 + 2]);
+            }
+
+            int sizeX = maxX - minX + 1;
+            int sizeZ = maxZ - minZ + 1;
+            long volume = (long) sizeX * sizeZ * (maxY - minY + 1);
+
+            if (volume <= Integer.MAX_VALUE && volume <= size * 3L) {
+                char[] dense = new char[(int) volume];
+                int count = 0;
+
+                for (int i = 0; i < size; i++) {
+                    int pos = (xyz[i * 3] - minX) + ((xyz[i * 3 + 2] - minZ) * sizeX) + ((xyz[i * 3 + 1] - minY) * sizeX * sizeZ);
+
+                    if (dense[pos] == 0) {
+                        count++;
+                    }
+
+                    dense[pos] = ids[i];
+                }
+
+                return new ObjectBlockStore(p, dense, null, minX, minY, minZ, sizeX, sizeZ, count);
+            }
+
+            if (volume > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Object bounds " + sizeX + " * " + (maxY - minY + 1) + " * " + sizeZ + " are too large");
+            }
+
+            long[] sorted = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                long pos = (xyz[i * 3] - minX) + ((long) (xyz[i * 3 + 2] - minZ) * sizeX) + ((long) (xyz[i * 3 + 1] - minY) * sizeX * sizeZ);
+                sorted[i] = (pos << 32) | i;
+            }
+
+            Arrays.sort(sorted);
+            int[] positions = new int[size];
+            char[] indexes = new char[size];
+            int count = 0;
+
+            for (int i = 0; i < size; i++) {
+                int pos = (int) (sorted[i] >>> 32);
+                char id = ids[(int) sorted[i]];
+
+                if (count > 0 && positions[count - 1] == pos) {
+                    indexes[count - 1] = id;
+                    continue;
+                }
+
+                positions[count] = pos;
+                indexes[count++] = id;
+            }
+
+            return new ObjectBlockStore(p, Arrays.copyOf(indexes, count), Arrays.copyOf(positions, count), minX, minY, minZ, sizeX, sizeZ, count);
+        }
+    }
+}
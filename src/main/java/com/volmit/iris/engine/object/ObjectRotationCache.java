@@ -0,0 +1,176 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.volmit.iris.core.IrisSettings;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.BlockVector;
+
+import java.util.Arrays;
+
+/**
+ * Keeps pre rotated copies of object block stores so placing the same object with the same
+ * (right angle) rotation again only needs to copy positions instead of rotating every block.
+ * The cache is bounded by the object rotation cache budget in the settings.
+ */
+public class ObjectRotationCache {
+    private static final double RIGHT = Math.PI / 2D;
+    private static final Cache<Key, Variant> cache = Caffeine.newBuilder()
+            .maximumWeight(Math.max(IrisSettings.get().getPerformance().getObjectRotationCacheMB(), 1) * 1024L * 1024L)
+            .weigher((Key k, Variant v) -> (int) Math.min(v.estimateSize(), Integer.MAX_VALUE))
+            .build();
+
+    /**
+     * Get the blocks of a store rotated by the given rotation & spin. Right angle rotations are cached,
+     * anything else is rotated on the spot.
+     *
+     * @param store    the object blocks
+     * @param rotation the rotation
+     * @param spinx    the x spin
+     * @param spiny    the y spin
+     * @param spinz    the z spin
+     * @return the rotated variant
+     */
+    public static Variant get(ObjectBlockStore store, IrisObjectRotation rotation, int spinx, int spiny, int spinz) {
+        if (!rotation.canRotate()) {
+            return cache.get(new Key(store, rotation, new double[6]), (k) -> new Variant(store, rotation, spinx, spiny, spinz));
+        }
+
+        double[] angles = new double[]{
+                rotation.getXRotation(spinx), rotation.getYRotation(spiny), rotation.getZRotation(spinz),
+                rotation.getXRotation(snap(spinx)), rotation.getYRotation(snap(spiny)), rotation.getZRotation(snap(spinz))
+        };
+
+        for (double i : angles) {
+            if (Math.abs((i / RIGHT) - Math.rint(i / RIGHT)) > 1e-9) {
+                return new Variant(store, rotation, spinx, spiny, spinz);
+            }
+        }
+
+        return cache.get(new Key(store, rotation, angles), (k) -> new Variant(store, rotation, spinx, spiny, spinz));
+    }
+
+    /**
+     * The spin block data rotation snaps to, see {@link IrisObjectRotation#rotate(BlockData, int, int, int)}
+     */
+    private static int snap(int spin) {
+        return (int) (90D * (Math.ceil(Math.abs((spin % 360D) / 90D))));
+    }
+
+    private static class Key {
+        private final ObjectBlockStore store;
+        private final IrisObjectRotation rotation;
+        private final double[] angles;
+        private final int hash;
+
+        private Key(ObjectBlockStore store, IrisObjectRotation rotation, double[] angles) {
+            this.store = store;
+            this.rotation = rotation;
+            this.angles = angles;
+            this.hash = (31 * ((31 * System.identityHashCode(store)) + rotation.hashCode())) + Arrays.hashCode(angles);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.store == store && k.hash == hash && k.rotation.equals(rotation) && Arrays.equals(k.angles, angles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The blocks of a store after rotation. Positions are kept per block, block data is kept
+     * rotated per palette entry and shared, so it has to be cloned before it is changed.
+     */
+    public static class Variant {
+        private final int[] cursors;
+        private final double[] positions;
+        private final BlockData[] rotated;
+
+        private Variant(ObjectBlockStore store, IrisObjectRotation rotation, int spinx, int spiny, int spinz) {
+            this.cursors = new int[store.size()];
+            this.positions = new double[store.size() * 3];
+            this.rotated = new BlockData[store.getPaletteSize()];
+            BlockVector v = new BlockVector();
+            int n = 0;
+
+            for (int i = 0; i < store.cursors(); i++) {
+                if (store.getPaletteIndex(i) < 0) {
+                    continue;
+                }
+
+                v.setX(store.getX(i));
+                v.setY(store.getY(i));
+                v.setZ(store.getZ(i));
+                BlockVector r = rotation.rotate(v, spinx, spiny, spinz);
+                cursors[n] = i;
+                positions[n * 3] = r.getX();
+                positions[n * 3 + 1] = r.getY();
+                positions[n * 3 + 2] = r.getZ();
+                n++;
+            }
+
+            for (int i = 0; i < rotated.length; i++) {
+                rotated[i] = rotation.rotate(store.getPalette(i).clone(), spinx, spiny, spinz);
+            }
+        }
+
+        public int size() {
+            return cursors.length;
+        }
+
+        /**
+         * Get the cursor into the (unrotated) store of a block
+         */
+        public int getCursor(int n) {
+            return cursors[n];
+        }
+
+        public double getX(int n) {
+            return positions[n * 3];
+        }
+
+        public double getY(int n) {
+            return positions[n * 3 + 1];
+        }
+
+        public double getZ(int n) {
+            return positions[n * 3 + 2];
+        }
+
+        /**
+         * Get the rotated block data of a palette entry (shared, clone before changing it)
+         *
+         * @param index the palette index
+         * @return the rotated data or null if it can't exist rotated like this
+         */
+        public BlockData getRotated(int index) {
+            return rotated[index];
+        }
+
+        public long estimateSize() {
+            return 64 + (cursors.length * 28L) + (rotated.length * 72L);
+        }
+    }
+}
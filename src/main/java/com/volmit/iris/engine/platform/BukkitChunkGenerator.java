@@ -39,6 +39,7 @@ import com.volmit.iris.util.io.ReactiveFolder;
 import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.J;
 import com.volmit.iris.util.scheduling.Looper;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Setter;
@@ -337,7 +338,9 @@ public class BukkitChunkGenerator extends ChunkGenerator implements PlatformChun
                 ChunkDataHunkHolder blocks = new ChunkDataHunkHolder(tc);
                 BiomeGridHunkHolder biomes = new BiomeGridHunkHolder(tc, tc.getMinHeight(), tc.getMaxHeight());
                 getEngine().generate(x << 4, z << 4, blocks, biomes, false);
+                PrecisionStopwatch p = PrecisionStopwatch.start();
                 blocks.apply();
+                getEngine().getMetrics().getApply().put(p.getMilliseconds());
                 biomes.apply();
             }
 
@@ -0,0 +1,53 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.cache;
+
+import com.volmit.iris.util.function.NoiseProvider;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Primitive variant of {@link ChunkCache2D}. Values are stored as raw double bits, an unresolved
+ * cell holds a NaN payload that no computation produces.
+ */
+public class ChunkDoubleCache2D {
+    private static final long EMPTY = 0x7ff4000000000001L;
+    private final AtomicLongArray cache;
+
+    public ChunkDoubleCache2D() {
+        this.cache = new AtomicLongArray(256);
+
+        for (int i = 0; i < 256; i++) {
+            cache.set(i, EMPTY);
+        }
+    }
+
+    public double get(int x, int z, NoiseProvider resolver) {
+        int key = ((z & 15) * 16) + (x & 15);
+        long t = cache.get(key);
+
+        if (t == EMPTY) {
+            double d = resolver.noise(x, z);
+            cache.set(key, Double.doubleToRawLongBits(d));
+            return d;
+        }
+
+        return Double.longBitsToDouble(t);
+    }
+}
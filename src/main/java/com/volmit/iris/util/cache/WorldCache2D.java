@@ -18,6 +18,29 @@ public class WorldCache2D<T> {
         return chunk.get(x, z, resolver);
     }
 
+    public void fill(int x, int z, int w, int h, T[] target) {
+        for (int j = 0; j < h; ) {
+            int zz = z + j;
+            int rows = Math.min(h - j, 16 - (zz & 15));
+
+            for (int i = 0; i < w; ) {
+                int xx = x + i;
+                int cols = Math.min(w - i, 16 - (xx & 15));
+                ChunkCache2D<T> chunk = chunks.get(Cache.key(xx >> 4, zz >> 4));
+
+                for (int b = 0; b < rows; b++) {
+                    for (int a = 0; a < cols; a++) {
+                        target[((j + b) * w) + i + a] = chunk.get(xx + a, zz + b, resolver);
+                    }
+                }
+
+                i += cols;
+            }
+
+            j += rows;
+        }
+    }
+
     public long getSize() {
         return chunks.getSize() * 256L;
     }
@@ -0,0 +1,65 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.cache;
+
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.function.NoiseProvider;
+
+public class WorldDoubleCache2D {
+    private final KCache<Long, ChunkDoubleCache2D> chunks;
+    private final NoiseProvider resolver;
+
+    public WorldDoubleCache2D(NoiseProvider resolver) {
+        this.resolver = resolver;
+        chunks = new KCache<>((x) -> new ChunkDoubleCache2D(), 1024);
+    }
+
+    public double get(int x, int z) {
+        ChunkDoubleCache2D chunk = chunks.get(Cache.key(x >> 4, z >> 4));
+        return chunk.get(x, z, resolver);
+    }
+
+    public void fill(int x, int z, int w, int h, double[] target) {
+        for (int j = 0; j < h; ) {
+            int zz = z + j;
+            int rows = Math.min(h - j, 16 - (zz & 15));
+
+            for (int i = 0; i < w; ) {
+                int xx = x + i;
+                int cols = Math.min(w - i, 16 - (xx & 15));
+                ChunkDoubleCache2D chunk = chunks.get(Cache.key(xx >> 4, zz >> 4));
+
+                for (int b = 0; b < rows; b++) {
+                    for (int a = 0; a < cols; a++) {
+                        target[((j + b) * w) + i + a] = chunk.get(xx + a, zz + b, resolver);
+                    }
+                }
+
+                i += cols;
+            }
+
+            j += rows;
+        }
+    }
+
+    public long getSize() {
+        return chunks.getSize() * 256L;
+    }
+}
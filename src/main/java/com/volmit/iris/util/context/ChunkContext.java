@@ -13,7 +13,7 @@ import org.bukkit.block.data.BlockData;
 public class ChunkContext {
     private final int x;
     private final int z;
-    private ChunkedDataCache<Double> height;
+    private ChunkedDoubleCache height;
     private ChunkedDataCache<IrisBiome> biome;
     private ChunkedDataCache<IrisBiome> cave;
     private ChunkedDataCache<BlockData> rock;
@@ -32,7 +32,7 @@ public class ChunkContext {
 
         if (cache) {
             BurstExecutor b = MultiBurst.burst.burst();
-            height = new ChunkedDataCache<>(b, c.getHeightStream(), x, z);
+            height = new ChunkedDoubleCache(b, c.getHeightStream(), x, z);
             biome = new ChunkedDataCache<>(b, c.getTrueBiomeStream(), x, z);
             cave = new ChunkedDataCache<>(b, c.getCaveBiomeStream(), x, z);
             rock = new ChunkedDataCache<>(b, c.getRockStream(), x, z);
@@ -40,7 +40,7 @@ public class ChunkContext {
             region = new ChunkedDataCache<>(b, c.getRegionStream(), x, z);
             b.complete();
         } else {
-            height = new ChunkedDataCache<>(null, c.getHeightStream(), x, z, false);
+            height = new ChunkedDoubleCache(null, c.getHeightStream(), x, z, false);
             biome = new ChunkedDataCache<>(null, c.getTrueBiomeStream(), x, z, false);
             cave = new ChunkedDataCache<>(null, c.getCaveBiomeStream(), x, z, false);
             rock = new ChunkedDataCache<>(null, c.getRockStream(), x, z, false);
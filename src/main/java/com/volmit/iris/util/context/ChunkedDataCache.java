@@ -20,6 +20,7 @@ public class ChunkedDataCache<T> {
         this(burst, stream, x, z, true);
     }
 
+    @SuppressWarnings("unchecked")
     @BlockCoordinates
     public ChunkedDataCache(BurstExecutor burst, ProceduralStream<T> stream, int x, int z, boolean cache) {
         this.stream = stream;
@@ -29,19 +30,13 @@ public class ChunkedDataCache<T> {
         this.uniques = cache ? new KSet<>() : null;
         if (cache) {
             data = new Object[256];
-            int i, j;
+            burst.queue(() -> {
+                stream.fillTile(x, z, 16, 16, (T[]) data);
 
-            for (i = 0; i < 16; i++) {
-                int finalI = i;
-                for (j = 0; j < 16; j++) {
-                    int finalJ = j;
-                    burst.queue(() -> {
-                        T t = stream.get(x + finalI, z + finalJ);
-                        data[(finalJ * 16) + finalI] = t;
-                        uniques.add(t);
-                    });
+                for (Object i : data) {
+                    uniques.add((T) i);
                 }
-            }
+            });
         } else {
             data = new Object[0];
         }
@@ -46,6 +46,10 @@ public class B {
 
     private static final Material AIR_MATERIAL = Material.AIR;
     private static final BlockData AIR = AIR_MATERIAL.createBlockData();
+    private static final BlockData UNKNOWN = Material.BARRIER.createBlockData();
+    private static final int MAX_CACHE = 65_536;
+    private static final KMap<String, BlockData> rawCache = new KMap<>();
+    private static final KMap<String, BlockData> parsedCache = new KMap<>();
     private static final IntSet foliageCache = buildFoliageCache();
     private static final IntSet deepslateCache = buildDeepslateCache();
     private static final Int2IntMap normal2DeepslateCache = buildNormal2DeepslateCache();
@@ -275,9 +279,20 @@ public class B {
     }
 
     public static BlockData toDeepSlateOre(BlockData block, BlockData ore) {
+        return toDeepSlateOre(isDeepSlate(block), ore);
+    }
+
+    /**
+     * Get the variant of an ore for a host block that is (or is not) deepslate
+     *
+     * @param deepslate true if the ore replaces deepslate
+     * @param ore       the ore
+     * @return the ore variant
+     */
+    public static BlockData toDeepSlateOre(boolean deepslate, BlockData ore) {
         int key = ore.getMaterial().ordinal();
 
-        if (isDeepSlate(block)) {
+        if (deepslate) {
             if (normal2DeepslateCache.containsKey(key)) {
                 return Material.values()[normal2DeepslateCache.get(key)].createBlockData();
             }
@@ -406,32 +421,64 @@ public class B {
         return mat.getMaterial().isSolid();
     }
 
+    /**
+     * Resolve block data from a string. Results are cached twice, by the string as given and by
+     * the normalized string that was parsed, so repeated lookups never reach the (synchronized)
+     * parser. Unknown blocks are cached as well unless they belong to an external provider that
+     * may register them later. Every call returns its own copy of the cached prototype.
+     *
+     * @param bdxf the block data string
+     * @return the block data, air if it is unknown, or null if it could not be read at all
+     */
     public static BlockData getOrNull(String bdxf) {
         try {
-            String bd = bdxf.trim();
+            if (!custom.isEmpty()) {
+                BlockData c = custom.get(bdxf.trim());
+
+                if (c != null) {
+                    return c;
+                }
+            }
+
+            BlockData cached = rawCache.get(bdxf);
 
-            if (!custom.isEmpty() && custom.containsKey(bd)) {
-                return custom.get(bd);
+            if (cached != null) {
+                return cached == UNKNOWN ? AIR : cached.clone();
             }
 
+            String bd = bdxf.trim();
+
             if (bd.startsWith("minecraft:cauldron[level=")) {
                 bd = bd.replaceAll("\\Q:cauldron[\\E", ":water_cauldron[");
             }
 
             if (bd.equals("minecraft:grass_path")) {
-                return DIRT_PATH.createBlockData();
+                bd = "minecraft:dirt_path";
             }
 
-            BlockData bdx = parseBlockData(bd);
+            BlockData bdx = parsedCache.get(bd);
 
             if (bdx == null) {
-                if (clw.flip()) {
-                    Iris.warn("Unknown Block Data '" + bd + "'");
+                bdx = parseBlockData(bd);
+
+                if (bdx == null) {
+                    if (clw.flip()) {
+                        Iris.warn("Unknown Block Data '" + bd + "'");
+                    }
+
+                    if (bd.startsWith("minecraft:") || !bd.contains(":")) {
+                        cache(bdxf, bd, UNKNOWN);
+                    }
+
+                    return AIR;
                 }
-                return AIR;
+
+                cache(bdxf, bd, bdx);
+            } else {
+                cache(bdxf, null, bdx);
             }
 
-            return bdx;
+            return bdx == UNKNOWN ? AIR : bdx.clone();
         } catch (Throwable e) {
             Iris.reportError(e);
 
@@ -443,6 +490,37 @@ public class B {
         return null;
     }
 
+    private static void cache(String raw, String parsed, BlockData b) {
+        if (rawCache.size() > MAX_CACHE) {
+            rawCache.clear();
+        }
+
+        if (parsed != null) {
+            if (parsedCache.size() > MAX_CACHE) {
+                parsedCache.clear();
+            }
+
+            parsedCache.put(parsed, b);
+        }
+
+        rawCache.put(raw, b);
+    }
+
+    /**
+     * Forget every resolved block data, for example after settings affecting parsing changed
+     */
+    public static void clearCache() {
+        rawCache.clear();
+        parsedCache.clear();
+    }
+
+    /**
+     * @return the amount of distinct block data strings resolved and cached
+     */
+    public static int getCacheSize() {
+        return parsedCache.size();
+    }
+
     public static BlockData get(String bdxf) {
         BlockData bd = getOrNull(bdxf);
 
@@ -0,0 +1,140 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.data;
+
+import com.volmit.iris.util.collection.KMap;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * Assigns every distinct block state an int id for the lifetime of the server, so hot generation
+ * code can compare, store and classify blocks without touching {@link BlockData} objects. The
+ * predicates from {@link B} are evaluated once per id when it is registered. Id 0 is reserved for
+ * "no block" (null), it counts as air like {@link B#isAir(BlockData)} does for null.
+ */
+public class BlockStates {
+    private static final KMap<BlockData, Integer> ids = new KMap<>();
+    private static volatile BlockData[] states = new BlockData[1024];
+    private static volatile long[] solid = new long[16];
+    private static volatile long[] air = new long[]{1L};
+    private static volatile long[] fluid = new long[16];
+    private static volatile long[] foliage = new long[16];
+    private static volatile long[] decorant = new long[16];
+    private static int next = 1;
+
+    /**
+     * Get the id of a block state, registering it if it was never seen before
+     *
+     * @param b the block state (or null)
+     * @return the id, 0 for null
+     */
+    public static int id(BlockData b) {
+        if (b == null) {
+            return 0;
+        }
+
+        Integer id = ids.get(b);
+        return id != null ? id : register(b);
+    }
+
+    /**
+     * Get the registered block state of an id. The instance is shared by every user of the id and
+     * must not be modified, clone it before handing it to code that may change it.
+     *
+     * @return the block state of an id, null for 0
+     */
+    public static BlockData get(int id) {
+        return states[id];
+    }
+
+    /**
+     * @return the amount of ids handed out so far (including 0)
+     */
+    public static int size() {
+        return next;
+    }
+
+    public static boolean isSolid(int id) {
+        return has(solid, id);
+    }
+
+    public static boolean isAir(int id) {
+        return has(air, id);
+    }
+
+    public static boolean isFluid(int id) {
+        return has(fluid, id);
+    }
+
+    public static boolean isAirOrFluid(int id) {
+        return has(air, id) || has(fluid, id);
+    }
+
+    public static boolean isFoliage(int id) {
+        return has(foliage, id);
+    }
+
+    public static boolean isDecorant(int id) {
+        return has(decorant, id);
+    }
+
+    private static boolean has(long[] bits, int id) {
+        return (id >> 6) < bits.length && (bits[id >> 6] & (1L << (id & 63))) != 0;
+    }
+
+    private static synchronized int register(BlockData data) {
+        Integer existing = ids.get(data);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        // Callers keep mutating their own instance (vines, walls), the registry keeps a private copy
+        BlockData b = data.clone();
+        int id = next++;
+
+        if (id >= states.length) {
+            BlockData[] s = new BlockData[states.length << 1];
+            System.arraycopy(states, 0, s, 0, states.length);
+            states = s;
+        }
+
+        solid = mark(solid, id, B.isSolid(b));
+        air = mark(air, id, B.isAir(b));
+        fluid = mark(fluid, id, B.isFluid(b));
+        foliage = mark(foliage, id, B.isFoliage(b));
+        decorant = mark(decorant, id, B.isDecorant(b));
+        states[id] = b;
+        ids.put(b, id);
+        return id;
+    }
+
+    private static long[] mark(long[] bits, int id, boolean value) {
+        if ((id >> 6) >= bits.length) {
+            long[] n = new long[Math.max(bits.length << 1, (id >> 6) + 1)];
+            System.arraycopy(bits, 0, n, 0, bits.length);
+            bits = n;
+        }
+
+        if (value) {
+            bits[id >> 6] |= 1L << (id & 63);
+        }
+
+        return bits;
+    }
+}
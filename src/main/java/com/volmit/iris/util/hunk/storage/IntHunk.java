@@ -0,0 +1,150 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.hunk.storage;
+
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.hunk.Hunk;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * Block hunk stored as {@link BlockStates} ids so hot stages can read and write ints. Cells are
+ * laid out column by column (y fastest). A stage copies in the columns it works on with
+ * {@link #stage(Hunk, int, int)} (or the whole hunk with {@link #stage(Hunk)}), works on the ids
+ * and copies back only the cells it changed with {@link #publish(Hunk)}, which is the only point
+ * block states are materialized again. Different x slices may be staged and written from
+ * different threads as long as one slice (depth * height cells) fills whole 64 bit words of the
+ * dirty bitmap, so no two slices share a word. Assuming depth 16, the height has to be a multiple
+ * of 4.
+ */
+public class IntHunk extends StorageHunk<BlockData> implements Hunk<BlockData> {
+    private final int[] data;
+    private final long[] dirty;
+
+    public IntHunk(int w, int h, int d) {
+        super(w, h, d);
+        data = new int[w * h * d];
+        dirty = new long[(data.length + 63) >> 6];
+    }
+
+    /**
+     * Copy a block hunk into a new int hunk
+     *
+     * @param source the hunk to read
+     * @return the staged copy, with nothing marked changed
+     */
+    public static IntHunk stage(Hunk<BlockData> source) {
+        IntHunk h = new IntHunk(source.getWidth(), source.getHeight(), source.getDepth());
+
+        for (int x = 0; x < h.getWidth(); x++) {
+            for (int z = 0; z < h.getDepth(); z++) {
+                h.stage(source, x, z);
+            }
+        }
+
+        return h;
+    }
+
+    /**
+     * Copy one column of a block hunk into this hunk, without marking it changed
+     *
+     * @param source the hunk to read, the same size as this one
+     * @param x      the column x
+     * @param z      the column z
+     */
+    public void stage(Hunk<BlockData> source, int x, int z) {
+        int c = index(x, 0, z);
+        BlockData last = null;
+        int lastId = 0;
+
+        for (int y = 0; y < getHeight(); y++) {
+            BlockData b = source.getRaw(x, y, z);
+
+            if (b != last) {
+                last = b;
+                lastId = BlockStates.id(b);
+            }
+
+            data[c + y] = lastId;
+        }
+    }
+
+    /**
+     * Write every cell changed since staging into a block hunk. Each cell gets its own copy of the
+     * block state, so later stages can modify what they read back.
+     *
+     * @param target the hunk to write
+     * @return the amount of cells written
+     */
+    public int publish(Hunk<BlockData> target) {
+        int written = 0;
+
+        for (int i = 0; i < dirty.length; i++) {
+            long bits = dirty[i];
+
+            while (bits != 0) {
+                int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int y = index % getHeight();
+                int column = index / getHeight();
+                BlockData b = BlockStates.get(data[index]);
+                target.setRaw(column / getDepth(), y, column % getDepth(), b == null ? null : b.clone());
+                written++;
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * @return the id at the given position, 0 (no block) outside of the hunk
+     */
+    public int getId(int x, int y, int z) {
+        if (y < 0 || y >= getHeight()) {
+            return 0;
+        }
+
+        return data[index(x, y, z)];
+    }
+
+    public void setId(int x, int y, int z, int id) {
+        int index = index(x, y, z);
+
+        if (data[index] != id) {
+            data[index] = id;
+            dirty[index >> 6] |= 1L << (index & 63);
+        }
+    }
+
+    @Override
+    public void setRaw(int x, int y, int z, BlockData t) {
+        setId(x, y, z, BlockStates.id(t));
+    }
+
+    /**
+     * @return the shared block state at the given position, see {@link BlockStates#get(int)}
+     */
+    @Override
+    public BlockData getRaw(int x, int y, int z) {
+        return BlockStates.get(data[index(x, y, z)]);
+    }
+
+    private int index(int x, int y, int z) {
+        return (((x * getDepth()) + z) * getHeight()) + y;
+    }
+}
@@ -29,6 +29,7 @@ import java.util.function.Supplier;
 
 public abstract class PaletteOrHunk<T> extends StorageHunk<T> implements Hunk<T>, Writable<T> {
     private final Hunk<T> hunk;
+    private volatile boolean dirty;
 
     public PaletteOrHunk(int width, int height, int depth, boolean allow, Supplier<Hunk<T>> factory) {
         super(width, height, depth);
@@ -46,12 +47,34 @@ public abstract class PaletteOrHunk<T> extends StorageHunk<T> implements Hunk<T>
     public void setPalette(DataContainer<T> c) {
         if (isPalette()) {
             ((PaletteHunk<T>) hunk).setPalette(c);
+            dirty = true;
         }
     }
 
+    /**
+     * Check if this hunk was written to since it was last cleaned
+     *
+     * @return true if it was modified
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Mark this hunk as clean. Clean before serializing, any write racing
+     * the serialization will then mark it dirty again.
+     */
+    public void clean() {
+        dirty = false;
+    }
+
     @Override
     public void setRaw(int x, int y, int z, T t) {
         hunk.setRaw(x, y, z, t);
+
+        if (!dirty) {
+            dirty = true;
+        }
     }
 
     @Override
@@ -67,6 +90,22 @@ public abstract class PaletteOrHunk<T> extends StorageHunk<T> implements Hunk<T>
         return hunk.isMapped();
     }
 
+    /**
+     * Roughly estimate the retained heap of this hunk. Palettes count their packed bits and
+     * palette entries, mapped hunks count every stored entry.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateSize() {
+        DataContainer<T> c = palette();
+
+        if (c == null) {
+            return 64L + (getEntryCount() * 16L);
+        }
+
+        return 64L + (c.getData().getRaw().length() * 8L) + (c.getPalette().size() * 16L);
+    }
+
     public boolean isEmpty() {
         return hunk.isMapped();
     }
@@ -86,5 +125,6 @@ public abstract class PaletteOrHunk<T> extends StorageHunk<T> implements Hunk<T>
     @Override
     public void empty(T b) {
         hunk.empty(b);
+        dirty = true;
     }
 }
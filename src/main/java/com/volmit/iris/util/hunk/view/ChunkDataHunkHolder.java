@@ -18,19 +18,40 @@
 
 package com.volmit.iris.util.hunk.view;
 
-import com.volmit.iris.util.hunk.storage.AtomicHunk;
+import com.volmit.iris.core.nms.INMS;
+import com.volmit.iris.engine.data.chunk.TerrainChunk;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.StorageHunk;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.generator.ChunkGenerator.ChunkData;
 
-@SuppressWarnings("ClassCanBeRecord")
-public class ChunkDataHunkHolder extends AtomicHunk<BlockData> {
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stages the blocks of a chunk as 16x16x16 sections of palette ids so generation stages can write
+ * without touching the chunk. {@link #apply()} then publishes each section in one go through the
+ * nms binding, sections that were never written or only hold air are skipped. Ids are the palette
+ * index plus one, zero meaning untouched.
+ */
+public class ChunkDataHunkHolder extends StorageHunk<BlockData> implements Hunk<BlockData> {
     private static final BlockData AIR = Material.AIR.createBlockData();
     private final ChunkData chunk;
+    private final AtomicReferenceArray<AtomicIntegerArray> sections;
+    private final KMap<BlockData, Integer> ids;
+    private final KMap<Integer, BlockData> palette;
+    private final AtomicInteger nextId;
 
     public ChunkDataHunkHolder(ChunkData chunk) {
         super(16, chunk.getMaxHeight() - chunk.getMinHeight(), 16);
         this.chunk = chunk;
+        this.sections = new AtomicReferenceArray<>((getHeight() + 15) >> 4);
+        this.ids = new KMap<>();
+        this.palette = new KMap<>();
+        this.nextId = new AtomicInteger(1);
     }
 
     @Override
@@ -48,22 +69,86 @@ public class ChunkDataHunkHolder extends AtomicHunk<BlockData> {
         return chunk.getMaxHeight() - chunk.getMinHeight();
     }
 
+    @Override
+    public boolean isAtomic() {
+        return true;
+    }
+
+    @Override
+    public void setRaw(int x, int y, int z, BlockData t) {
+        AtomicIntegerArray s = sections.get(y >> 4);
+
+        if (s == null) {
+            if (t == null) {
+                return;
+            }
+
+            sections.compareAndSet(y >> 4, null, new AtomicIntegerArray(4096));
+            s = sections.get(y >> 4);
+        }
+
+        s.set(index(x, y, z), t == null ? 0 : idOf(t));
+    }
+
     @Override
     public BlockData getRaw(int x, int y, int z) {
-        BlockData b = super.getRaw(x, y, z);
+        AtomicIntegerArray s = sections.get(y >> 4);
+        int id = s == null ? 0 : s.get(index(x, y, z));
+
+        return id == 0 ? AIR : palette.get(id);
+    }
+
+    private int idOf(BlockData b) {
+        Integer id = ids.get(b);
 
-        return b != null ? b : AIR;
+        if (id == null) {
+            id = ids.computeIfAbsent(b, (k) -> {
+                int i = nextId.getAndIncrement();
+                palette.put(i, k);
+                return i;
+            });
+        }
+
+        return id;
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | (z << 4) | x;
     }
 
     public void apply() {
-        for (int i = 0; i < getHeight(); i++) {
-            for (int j = 0; j < getWidth(); j++) {
-                for (int k = 0; k < getDepth(); k++) {
-                    BlockData b = super.getRaw(j, i, k);
-
-                    if (b != null) {
-                        chunk.setBlock(j, i + chunk.getMinHeight(), k, b);
-                    }
+        ChunkData target = chunk instanceof TerrainChunk t ? t.getRaw() : chunk;
+        BlockData[] p = new BlockData[nextId.get()];
+        palette.forEach((k, v) -> p[k] = v);
+        int[] states = new int[4096];
+
+        for (int i = 0; i < sections.length(); i++) {
+            AtomicIntegerArray s = sections.get(i);
+
+            if (s == null) {
+                continue;
+            }
+
+            boolean empty = true;
+
+            for (int j = 0; j < 4096; j++) {
+                int id = s.get(j);
+                states[j] = id;
+
+                if (id != 0 && !p[id].getMaterial().isAir()) {
+                    empty = false;
+                }
+            }
+
+            if (empty || INMS.get().setSection(target, i, states, p)) {
+                continue;
+            }
+
+            int minY = (i << 4) + chunk.getMinHeight();
+
+            for (int j = 0; j < 4096; j++) {
+                if (states[j] != 0) {
+                    target.setBlock(j & 15, minY + (j >> 8), (j >> 4) & 15, p[states[j]]);
                 }
             }
         }
@@ -0,0 +1,158 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Which blocks of a mantle chunk hold cavern matter, as one y bitset per column. Answering
+ * "is this carved" is a single bit test instead of a plate, section and slice lookup. The bits are
+ * only allocated once the first block is carved.
+ */
+public class CarveOccupancy {
+    /**
+     * The amount of 64 block words per column
+     */
+    @Getter
+    private final int words;
+    private volatile AtomicLongArray bits;
+
+    /**
+     * @param height the height of the chunk in blocks
+     */
+    public CarveOccupancy(int height) {
+        this.words = (height + 63) >> 6;
+    }
+
+    private static int column(int x, int z) {
+        return ((z & 15) << 4) | (x & 15);
+    }
+
+    private AtomicLongArray bits() {
+        AtomicLongArray b = bits;
+
+        if (b == null) {
+            synchronized (this) {
+                b = bits;
+
+                if (b == null) {
+                    b = new AtomicLongArray(256 * words);
+                    bits = b;
+                }
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * @return true if nothing in this chunk is carved
+     */
+    public boolean isEmpty() {
+        return bits == null;
+    }
+
+    /**
+     * Check if a block is carved
+     *
+     * @param x the chunk relative x (0-15)
+     * @param y the block y (0 - height), out of range reads as not carved
+     * @param z the chunk relative z (0-15)
+     * @return true if it is carved
+     */
+    public boolean get(int x, int y, int z) {
+        AtomicLongArray b = bits;
+
+        if (b == null || y < 0 || (y >> 6) >= words) {
+            return false;
+        }
+
+        return (b.get(column(x, z) * words + (y >> 6)) & (1L << y)) != 0;
+    }
+
+    /**
+     * Mark a block as carved or not
+     *
+     * @param x the chunk relative x (0-15)
+     * @param y the block y (0 - height)
+     * @param z the chunk relative z (0-15)
+     * @param carved true if it is carved
+     */
+    public void set(int x, int y, int z, boolean carved) {
+        if (y < 0 || (y >> 6) >= words || (!carved && bits == null)) {
+            return;
+        }
+
+        AtomicLongArray b = bits();
+        int i = column(x, z) * words + (y >> 6);
+        long m = 1L << y;
+
+        if (carved) {
+            b.getAndAccumulate(i, m, (v, k) -> v | k);
+        } else {
+            b.getAndAccumulate(i, ~m, (v, k) -> v & k);
+        }
+    }
+
+    /**
+     * Get 64 blocks of a column at once
+     *
+     * @param x    the chunk relative x (0-15)
+     * @param word the word (y >> 6)
+     * @param z    the chunk relative z (0-15)
+     * @return the bits, bit n is block (word << 6) + n
+     */
+    public long word(int x, int word, int z) {
+        AtomicLongArray b = bits;
+        return b == null || word < 0 || word >= words ? 0 : b.get(column(x, z) * words + word);
+    }
+
+    /**
+     * Forget all carved blocks
+     */
+    public void clear() {
+        bits = null;
+    }
+
+    /**
+     * Forget the carved blocks of one 16 block section
+     *
+     * @param section the section (y >> 4)
+     */
+    public void clearSection(int section) {
+        AtomicLongArray b = bits;
+        int word = section >> 2;
+
+        if (b == null || section < 0 || word >= words) {
+            return;
+        }
+
+        long m = ~(0xFFFFL << ((section & 3) << 4));
+
+        for (int i = 0; i < 256; i++) {
+            b.getAndAccumulate(i * words + word, m, (v, k) -> v & k);
+        }
+    }
+
+    public long estimateSize() {
+        return 24 + (bits == null ? 0 : 256L * words * 8);
+    }
+}
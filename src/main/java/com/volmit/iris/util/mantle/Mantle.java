@@ -20,52 +20,97 @@ package com.volmit.iris.util.mantle;
 
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.core.service.PreservationSVC;
 import com.volmit.iris.core.tools.IrisToolbelt;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.MeteredCache;
 import com.volmit.iris.engine.mantle.EngineMantle;
 import com.volmit.iris.engine.mantle.MantleWriter;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.documentation.RegionCoordinates;
 import com.volmit.iris.util.format.C;
+import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterObjectHandle;
+import com.volmit.iris.util.matter.MatterObjectPlacement;
 import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.parallel.HyperLock;
 import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Getter;
 import org.bukkit.Chunk;
 
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
 /**
  * The mantle can store any type of data slice anywhere and manage regions & IO on it's own.
  * This class is fully thread safe read & writeNodeData
+ * <p>
+ * Loaded plates are kept within a memory budget (performance.mantleCacheBudgetMB). Once the
+ * estimated size of all loaded plates exceeds it, plates are unloaded by the configured policy
+ * (lru or lfu) until it fits again. Plates pinned by a MantleWriter are never unloaded.
  */
-public class Mantle {
+public class Mantle implements MeteredCache {
+    private static final int CLAIM_SHIFT = 2;
+    private static final int CLAIM_STRIPES = 1024;
+    private static final int MAX_PENDING_WRITES = 16;
+    private static final long BUDGET_CHECK_INTERVAL = 1000;
+    private static final long EVICTION_GRACE = 10000;
+    @Getter
     private final File dataFolder;
     private final int worldHeight;
     private final Map<Long, Long> lastUse;
     @Getter
     private final Map<Long, TectonicPlate> loadedRegions;
     private final HyperLock hyperLock;
+    private final ReentrantLock[] claimLocks;
     private final KSet<Long> unload;
     private final AtomicBoolean closed;
     private final MultiBurst ioBurst;
     private final AtomicBoolean io;
+    private final Set<Long> saving;
+    private final Map<Long, Integer> pins;
+    private final AtomicBoolean budgetCheck;
+    private final AtomicLong lastBudgetCheck;
+    private final AtomicLong loadedBytes;
+    @Getter
+    private final LongAdder hits;
+    @Getter
+    private final LongAdder misses;
+    @Getter
+    private final LongAdder evictions;
+    @Getter
+    private final LongAdder plateWaits;
+    @Getter
+    private final LongAdder prefetchWaits;
+    @Getter
+    private final MantlePrefetcher prefetcher;
 
     /**
      * Create a new mantle
@@ -76,15 +121,31 @@ public class Mantle {
     @BlockCoordinates
     public Mantle(File dataFolder, int worldHeight) {
         this.hyperLock = new HyperLock();
+        this.claimLocks = new ReentrantLock[CLAIM_STRIPES];
+        for (int i = 0; i < CLAIM_STRIPES; i++) {
+            claimLocks[i] = new ReentrantLock();
+        }
         this.closed = new AtomicBoolean(false);
         this.dataFolder = dataFolder;
         this.worldHeight = worldHeight;
         this.io = new AtomicBoolean(false);
         dataFolder.mkdirs();
         unload = new KSet<>();
+        saving = ConcurrentHashMap.newKeySet();
+        pins = new ConcurrentHashMap<>();
+        budgetCheck = new AtomicBoolean(false);
+        lastBudgetCheck = new AtomicLong(0);
+        loadedBytes = new AtomicLong(0);
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+        plateWaits = new LongAdder();
+        prefetchWaits = new LongAdder();
+        prefetcher = new MantlePrefetcher(this);
         loadedRegions = new KMap<>();
         lastUse = new KMap<>();
         ioBurst = MultiBurst.burst;
+        Iris.service(PreservationSVC.class).registerCache(this);
         Iris.debug("Opened The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath());
     }
 
@@ -156,6 +217,88 @@ public class Mantle {
         return new MantleWriter(engineMantle, this, x, z, radius);
     }
 
+    /**
+     * Claim every chunk within the radius of the given chunk for the duration of the runnable.
+     * Chunks are claimed in cells of 4x4 chunks. Cells map onto a fixed set of lock stripes
+     * which are never evicted, and every claim takes its distinct stripes in ascending order,
+     * so two claims can not deadlock and only wait on each other if their radii share a cell
+     * (or a stripe). This is a separate lock from the region io lock so a claim holder can
+     * still load plates freely.
+     *
+     * @param x      the x chunk
+     * @param z      the z chunk
+     * @param radius the radius chunks
+     * @param r      the runnable to run while the claim is held
+     */
+    @ChunkCoordinates
+    public void claim(int x, int z, int radius, Runnable r) {
+        int[] stripes = claimStripes((x - radius) >> CLAIM_SHIFT, (z - radius) >> CLAIM_SHIFT,
+                (x + radius) >> CLAIM_SHIFT, (z + radius) >> CLAIM_SHIFT);
+        int held = 0;
+
+        try {
+            for (int i : stripes) {
+                claimLocks[i].lock();
+                held++;
+            }
+
+            r.run();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                claimLocks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    private static int[] claimStripes(int minX, int minZ, int maxX, int maxZ) {
+        int[] s = new int[(maxX - minX + 1) * (maxZ - minZ + 1)];
+        int n = 0;
+
+        for (int i = minX; i <= maxX; i++) {
+            for (int j = minZ; j <= maxZ; j++) {
+                s[n++] = claimStripe(i, j);
+            }
+        }
+
+        Arrays.sort(s);
+        n = 0;
+
+        for (int i = 0; i < s.length; i++) {
+            if (i == 0 || s[i] != s[n - 1]) {
+                s[n++] = s[i];
+            }
+        }
+
+        return n == s.length ? s : Arrays.copyOf(s, n);
+    }
+
+    private static int claimStripe(int x, int z) {
+        int h = x * 0x9E3779B1 + z * 0x85EBCA6B;
+        return (h ^ (h >>> 16)) & (CLAIM_STRIPES - 1);
+    }
+
+    /**
+     * Pin a region so it will not be unloaded until it is unpinned again
+     *
+     * @param x the region x
+     * @param z the region z
+     */
+    @RegionCoordinates
+    public void pin(int x, int z) {
+        pins.merge(key(x, z), 1, Integer::sum);
+    }
+
+    /**
+     * Release a pin on a region
+     *
+     * @param x the region x
+     * @param z the region z
+     */
+    @RegionCoordinates
+    public void unpin(int x, int z) {
+        pins.computeIfPresent(key(x, z), (k, v) -> v <= 1 ? null : v - 1);
+    }
+
     /**
      * Lower a flag if it is raised. If the flag was lowered (meaning it was previously raised), execute the runnable
      *
@@ -266,11 +409,15 @@ public class Mantle {
             return;
         }
 
-        Matter matter = get((x >> 4) >> 5, (z >> 4) >> 5)
-                .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4);
+        MantleChunk chunk = get((x >> 4) >> 5, (z >> 4) >> 5)
+                .getOrCreate((x >> 4) & 31, (z >> 4) & 31);
+        Matter matter = chunk.getOrCreate(y >> 4);
         matter.slice(matter.getClass(t))
                 .set(x & 15, y & 15, z & 15, t);
+
+        if (t instanceof MatterCavern) {
+            chunk.setCarved(x & 15, y, z & 15, true);
+        }
     }
 
     @BlockCoordinates
@@ -283,11 +430,17 @@ public class Mantle {
             return;
         }
 
-        Matter matter = get((x >> 4) >> 5, (z >> 4) >> 5)
-                .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4);
-        matter.slice(t)
-                .set(x & 15, y & 15, z & 15, null);
+        MantleChunk chunk = get((x >> 4) >> 5, (z >> 4) >> 5)
+                .getOrCreate((x >> 4) & 31, (z >> 4) & 31);
+        MatterSlice<T> slice = chunk.getOrEmpty(y >> 4).getSlice(t);
+
+        if (slice != null) {
+            slice.set(x & 15, y & 15, z & 15, null);
+
+            if (t == MatterCavern.class) {
+                chunk.setCarved(x & 15, y, z & 15, false);
+            }
+        }
     }
 
     /**
@@ -305,7 +458,6 @@ public class Mantle {
      * @param <T> the type assumed from the provided class
      * @return the returned result (or null) if it doesnt exist
      */
-    @SuppressWarnings("unchecked")
     @BlockCoordinates
     public <T> T get(int x, int y, int z, Class<T> t) {
         if (closed.get()) {
@@ -320,10 +472,71 @@ public class Mantle {
             return null;
         }
 
-        return (T) get((x >> 4) >> 5, (z >> 4) >> 5)
+        MatterSlice<T> slice = get((x >> 4) >> 5, (z >> 4) >> 5)
+                .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
+                .getOrEmpty(y >> 4)
+                .getSlice(t);
+        return slice == null ? null : slice.get(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * Check if a block holds cavern matter through the carve occupancy of its chunk. This is
+     * the same as get(x, y, z, MatterCavern.class) != null without resolving a section or slice.
+     *
+     * @param x the block's x coordinate
+     * @param y the block's y coordinate
+     * @param z the block's z coordinate
+     * @return true if it is carved
+     */
+    @BlockCoordinates
+    public boolean isCarved(int x, int y, int z) {
+        if (closed.get()) {
+            throw new RuntimeException("The Mantle is closed");
+        }
+
+        if (y < 0 || y >= worldHeight || !hasTectonicPlate((x >> 4) >> 5, (z >> 4) >> 5)) {
+            return false;
+        }
+
+        return get((x >> 4) >> 5, (z >> 4) >> 5)
                 .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4).slice(t)
-                .get(x & 15, y & 15, z & 15);
+                .isCarved(x & 15, y, z & 15);
+    }
+
+    /**
+     * Register an object placement with the plate containing the given block
+     *
+     * @param x         the block's x coordinate
+     * @param z         the block's z coordinate
+     * @param placement the placement
+     * @return the handle to store in that plate
+     */
+    @BlockCoordinates
+    public MatterObjectHandle registerObject(int x, int z, MatterObjectPlacement placement) {
+        if (closed.get()) {
+            throw new RuntimeException("The Mantle is closed");
+        }
+
+        return get((x >> 4) >> 5, (z >> 4) >> 5).getPlacements().register(placement);
+    }
+
+    /**
+     * Get the object placement at the given block (if any)
+     *
+     * @param x the block's x coordinate
+     * @param y the block's y coordinate
+     * @param z the block's z coordinate
+     * @return the placement or null
+     */
+    @BlockCoordinates
+    public MatterObjectPlacement getObject(int x, int y, int z) {
+        MatterObjectHandle handle = get(x, y, z, MatterObjectHandle.class);
+
+        if (handle == null) {
+            return null;
+        }
+
+        return get((x >> 4) >> 5, (z >> 4) >> 5).getPlacements().get(handle);
     }
 
     /**
@@ -355,13 +568,19 @@ public class Mantle {
         closed.set(true);
         BurstExecutor b = ioBurst.burst(loadedRegions.size());
         for (Long i : loadedRegions.keySet()) {
-            b.queue(() -> {
+            b.queue(() -> hyperLock.withLong(i, () -> {
+                TectonicPlate m = loadedRegions.get(i);
+
+                if (m == null || !m.isDirty()) {
+                    return;
+                }
+
                 try {
-                    loadedRegions.get(i).write(fileForRegion(dataFolder, i));
+                    m.write(fileForRegion(dataFolder, i));
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
-            });
+            }));
         }
 
         try {
@@ -398,20 +617,134 @@ public class Mantle {
         }
 
         for (Long i : unload) {
-            hyperLock.withLong(i, () -> {
-                TectonicPlate m = loadedRegions.remove(i);
-                lastUse.remove(i);
+            unloadPlate(i, idleDuration);
+        }
+        io.set(false);
+    }
 
-                try {
-                    m.write(fileForRegion(dataFolder, i));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+    /**
+     * Unload plates until the estimated size of all loaded plates fits the memory budget again
+     */
+    public synchronized void enforceBudget() {
+        long budget = IrisSettings.get().getPerformance().getMantleCacheBudgetMB() * 1024L * 1024L;
 
-                Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(i) + " " + Cache.keyZ(i));
-            });
+        if (closed.get()) {
+            return;
+        }
+
+        KMap<Long, Long> sizes = new KMap<>();
+        long total = 0;
+
+        for (Long i : loadedRegions.keySet()) {
+            TectonicPlate p = loadedRegions.get(i);
+
+            if (p != null) {
+                long size = p.estimateSize();
+                sizes.put(i, size);
+                total += size;
+            }
+        }
+
+        loadedBytes.set(total);
+
+        if (budget <= 0 || total <= budget) {
+            return;
         }
+
+        boolean lfu = IrisSettings.get().getPerformance().getMantleEvictionPolicy().equalsIgnoreCase("lfu");
+        ToLongFunction<Long> weight = lfu ? (i) -> {
+            TectonicPlate p = loadedRegions.get(i);
+            return p == null ? 0 : p.getUses();
+        } : (i) -> lastUse.getOrDefault(i, 0L);
+        KList<Long> order = sizes.k();
+        order.sort(Comparator.comparingLong(weight));
+        io.set(true);
+
+        for (Long i : order) {
+            if (total <= budget) {
+                break;
+            }
+
+            if (unloadPlate(i, EVICTION_GRACE)) {
+                total -= sizes.get(i);
+                evictions.increment();
+            }
+        }
+
         io.set(false);
+        loadedBytes.set(total);
+        Iris.debug("Mantle is now at " + getCacheStats());
+    }
+
+    private void checkBudget() {
+        if (M.ms() - lastBudgetCheck.get() < BUDGET_CHECK_INTERVAL || !budgetCheck.compareAndSet(false, true)) {
+            return;
+        }
+
+        ioBurst.lazy(() -> {
+            try {
+                enforceBudget();
+            } catch (Throwable e) {
+                Iris.reportError(e);
+            } finally {
+                lastBudgetCheck.set(M.ms());
+                budgetCheck.set(false);
+            }
+        });
+    }
+
+    /**
+     * Unload a plate (writing it if it is dirty) unless a writer pinned it or it was used within
+     * the given time. Callers of get() keep using the plate they got for a short while without a
+     * pin, the idle time keeps their writes from landing on a plate that is no longer loaded.
+     * <p>
+     * The plate is removed before its last use is checked, and get() checks the plate is still
+     * loaded after marking its use, so a get racing the unload either keeps the plate loaded or
+     * reads it again from disk after it was written.
+     *
+     * @param i    the region key
+     * @param idle the time in ms the plate must not have been used for
+     * @return true if it was unloaded
+     */
+    private boolean unloadPlate(Long i, long idle) {
+        return hyperLock.withResult(Cache.keyX(i), Cache.keyZ(i), () -> {
+            if (pins.containsKey(i)) {
+                return false;
+            }
+
+            TectonicPlate m = loadedRegions.remove(i);
+
+            if (m == null) {
+                lastUse.remove(i);
+                return false;
+            }
+
+            if (idle > 0 && M.ms() - lastUse.getOrDefault(i, 0L) < idle) {
+                loadedRegions.put(i, m);
+                return false;
+            }
+
+            lastUse.remove(i);
+
+            if (!m.isDirty()) {
+                Iris.debug("Dropped clean Tectonic Plate " + C.DARK_GREEN + Cache.keyX(i) + " " + Cache.keyZ(i));
+                return true;
+            }
+
+            try {
+                m.write(fileForRegion(dataFolder, i));
+            } catch (IOException e) {
+                Iris.error("Failed to write Tectonic Plate " + Cache.keyX(i) + " " + Cache.keyZ(i) + ", keeping it loaded");
+                Iris.reportError(e);
+                e.printStackTrace();
+                loadedRegions.put(i, m);
+                lastUse.put(i, M.ms());
+                return false;
+            }
+
+            Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(i) + " " + Cache.keyZ(i));
+            return true;
+        });
     }
 
     /**
@@ -434,10 +767,29 @@ public class Mantle {
             }
         }
 
-        TectonicPlate p = loadedRegions.get(key(x, z));
+        Long k = key(x, z);
+        TectonicPlate p = loadedRegions.get(k);
 
         if (p != null) {
-            return p;
+            lastUse.put(k, M.ms());
+
+            if (loadedRegions.get(k) == p) {
+                p.touch();
+                hits.increment();
+                return p;
+            }
+        }
+
+        plateWaits.increment();
+        Future<TectonicPlate> prefetch = prefetcher.getPending(k);
+
+        if (prefetch != null && !prefetch.isDone()) {
+            try {
+                prefetchWaits.increment();
+                return prefetch.get();
+            } catch (Throwable e) {
+                Iris.debug("Prefetch of Tectonic Plate " + x + " " + z + " did not complete, reading it now");
+            }
         }
 
         try {
@@ -454,6 +806,18 @@ public class Mantle {
         return get(x, z);
     }
 
+    /**
+     * Start reading the Tectonic Plate at the given coordinates in the background
+     *
+     * @param x the region x
+     * @param z the region z
+     * @return the future of the tectonic plate
+     */
+    @RegionCoordinates
+    public Future<TectonicPlate> prefetch(int x, int z) {
+        return getSafe(x, z);
+    }
+
     /**
      * This retreives a future of the Tectonic Plate at the given coordinates.
      * All methods accessing tectonic plates should go through this method
@@ -469,7 +833,12 @@ public class Mantle {
 
         if (p != null) {
             lastUse.put(k, M.ms());
-            return CompletableFuture.completedFuture(p);
+
+            if (loadedRegions.get(k) == p) {
+                p.touch();
+                hits.increment();
+                return CompletableFuture.completedFuture(p);
+            }
         }
 
         return ioBurst.completeValue(() -> hyperLock.withResult(x, z, () -> {
@@ -477,9 +846,13 @@ public class Mantle {
             TectonicPlate region = loadedRegions.get(k);
 
             if (region != null) {
+                hits.increment();
                 return region;
             }
 
+            misses.increment();
+            checkBudget();
+
             File file = fileForRegion(dataFolder, x, z);
 
             if (file.exists()) {
@@ -515,8 +888,122 @@ public class Mantle {
         }));
     }
 
+    /**
+     * Flush all dirty plates to disk in the background without unloading them.
+     * Plates which are already queued are not queued again, and at most
+     * a fixed amount of writes are outstanding at once. Anything over that
+     * stays dirty and is picked up by the next save, trim or close.
+     */
     public void saveAll() {
+        if (closed.get()) {
+            return;
+        }
 
+        for (Long i : loadedRegions.keySet()) {
+            if (saving.size() >= MAX_PENDING_WRITES) {
+                Iris.debug("Mantle save queue is full, deferring the remaining plates");
+                return;
+            }
+
+            TectonicPlate p = loadedRegions.get(i);
+
+            if (p == null || !p.isDirty() || !saving.add(i)) {
+                continue;
+            }
+
+            ioBurst.lazy(() -> {
+                try {
+                    hyperLock.withLong(i, () -> {
+                        TectonicPlate m = loadedRegions.get(i);
+
+                        if (m == null || !m.isDirty() || closed.get()) {
+                            return;
+                        }
+
+                        try {
+                            m.write(fileForRegion(dataFolder, i));
+                        } catch (IOException e) {
+                            e.printStackTrace();
+                        }
+                    });
+                } finally {
+                    saving.remove(i);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rewrite every plate of an older format in this mantle into the current region format,
+     * moving per block object keys into the placement registry on the way. Plates that are
+     * currently loaded are skipped, they are written in the new format when they unload anyways.
+     *
+     * @return the amount of plates converted
+     */
+    public int migrate() {
+        File[] files = dataFolder.listFiles((f, n) -> n.startsWith("p.") && n.endsWith(".ttp"));
+
+        if (files == null) {
+            return 0;
+        }
+
+        AtomicInteger converted = new AtomicInteger(0);
+        AtomicLong legacyMs = new AtomicLong(0);
+        AtomicLong regionMs = new AtomicLong(0);
+        AtomicLong legacyBytes = new AtomicLong(0);
+        AtomicLong regionBytes = new AtomicLong(0);
+        AtomicLong legacyHeap = new AtomicLong(0);
+        AtomicLong regionHeap = new AtomicLong(0);
+        AtomicLong objectKeys = new AtomicLong(0);
+        BurstExecutor b = ioBurst.burst(files.length);
+
+        for (File i : files) {
+            long k;
+
+            try {
+                k = Long.parseLong(i.getName().split("\\Q.\\E")[1]);
+            } catch (Throwable e) {
+                continue;
+            }
+
+            b.queue(() -> hyperLock.withLong(k, () -> {
+                if (loadedRegions.containsKey(k)) {
+                    return;
+                }
+
+                try {
+                    if (TectonicPlate.readVersion(i) >= TectonicPlate.VERSION) {
+                        return;
+                    }
+
+                    long size = i.length();
+                    PrecisionStopwatch p = PrecisionStopwatch.start();
+                    TectonicPlate plate = TectonicPlate.read(worldHeight, i);
+                    legacyMs.addAndGet((long) p.getMilliseconds());
+                    legacyHeap.addAndGet(plate.estimateSize());
+                    objectKeys.addAndGet(plate.convertObjectKeys());
+                    regionHeap.addAndGet(plate.estimateSize());
+                    plate.write(i);
+                    p = PrecisionStopwatch.start();
+                    TectonicPlate.read(worldHeight, i);
+                    regionMs.addAndGet((long) p.getMilliseconds());
+                    legacyBytes.addAndGet(size);
+                    regionBytes.addAndGet(i.length());
+                    converted.incrementAndGet();
+                } catch (Throwable e) {
+                    Iris.error("Failed to convert Tectonic Plate " + i.getAbsolutePath());
+                    Iris.reportError(e);
+                    e.printStackTrace();
+                }
+            }));
+        }
+
+        b.complete();
+        Iris.info("Converted " + converted.get() + " Tectonic Plates in " + dataFolder.getPath()
+                + " (" + Form.memSize(legacyBytes.get(), 1) + " -> " + Form.memSize(regionBytes.get(), 1)
+                + ", load " + Form.duration((double) legacyMs.get(), 0) + " -> " + Form.duration((double) regionMs.get(), 0) + ")");
+        Iris.info("Moved " + Form.f(objectKeys.get()) + " object keys into placement registries (heap " + Form.memSize(legacyHeap.get(), 1) + " -> " + Form.memSize(regionHeap.get(), 1) + ")");
+        return converted.get();
     }
 
     public int getWorldHeight() {
@@ -539,6 +1026,44 @@ public class Mantle {
         return loadedRegions.size();
     }
 
+    /**
+     * Describe the plate cache (budget use, hit rate, evictions and waits on plate reads)
+     *
+     * @return a single line summary
+     */
+    public String getCacheStats() {
+        long h = hits.sum();
+        long lookups = h + misses.sum();
+        return Form.memSize(getSize(), 1) + " / " + Form.memSize(getMaxSize(), 1) + " in " + getLoadedRegionCount() + " plates, "
+                + Form.pc(lookups == 0 ? 0 : (double) h / (double) lookups, 1) + " hits, "
+                + Form.f(evictions.sum()) + " evictions, "
+                + Form.f(plateWaits.sum()) + " waits (" + Form.f(prefetchWaits.sum()) + " on prefetch)";
+    }
+
+    /**
+     * The estimated size (in bytes) of all loaded plates as of the last budget check
+     */
+    @Override
+    public long getSize() {
+        return loadedBytes.get();
+    }
+
+    /**
+     * The mantle is not backed by a KCache
+     */
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return null;
+    }
+
+    /**
+     * The memory budget in bytes
+     */
+    @Override
+    public long getMaxSize() {
+        return Math.max(IrisSettings.get().getPerformance().getMantleCacheBudgetMB(), 1) * 1024L * 1024L;
+    }
+
     public <T> void set(int x, int y, int z, MatterSlice<T> slice) {
         if (slice.isEmpty()) {
             return;
@@ -18,12 +18,15 @@
 
 package com.volmit.iris.util.mantle;
 
-import com.volmit.iris.Iris;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.function.Consumer4;
+import com.volmit.iris.util.math.BlockPosition;
 import com.volmit.iris.util.matter.IrisMatter;
 import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterCavern;
 import com.volmit.iris.util.matter.MatterSlice;
+import com.volmit.iris.util.matter.MatterSliceTypes;
+import com.volmit.iris.util.matter.SectionMatter;
 import lombok.Getter;
 
 import java.io.DataInputStream;
@@ -43,6 +46,8 @@ public class MantleChunk {
     private final int z;
     private final AtomicIntegerArray flags;
     private final AtomicReferenceArray<Matter> sections;
+    private volatile CarveOccupancy carved;
+    private volatile boolean dirty;
 
     /**
      * Create a mantle chunk
@@ -70,6 +75,19 @@ public class MantleChunk {
      * @throws ClassNotFoundException shit happens
      */
     public MantleChunk(int sectionHeight, DataInputStream din) throws IOException, ClassNotFoundException {
+        this(sectionHeight, din, null);
+    }
+
+    /**
+     * Load a mantle chunk from a data stream
+     *
+     * @param sectionHeight the height of the world in sections (blocks >> 4)
+     * @param din           the data input
+     * @param types         the slice type table of the plate, null if types are stored by name
+     * @throws IOException            shit happens
+     * @throws ClassNotFoundException shit happens
+     */
+    public MantleChunk(int sectionHeight, DataInputStream din, MatterSliceTypes.Table types) throws IOException, ClassNotFoundException {
         this(sectionHeight, din.readByte(), din.readByte());
         int s = din.readByte();
 
@@ -78,15 +96,134 @@ public class MantleChunk {
         }
 
         for (int i = 0; i < s; i++) {
-            Iris.addPanic("read.section", "Section[" + i + "]");
             if (din.readBoolean()) {
-                sections.set(i, Matter.readDin(din));
+                sections.set(i, Matter.readDin(din, MantleChunk::createSection, types));
             }
         }
+
+        clean();
+    }
+
+    private static Matter createSection(BlockPosition size) {
+        if (size.getX() == SectionMatter.SIZE && size.getY() == SectionMatter.SIZE && size.getZ() == SectionMatter.SIZE) {
+            return new SectionMatter();
+        }
+
+        return new IrisMatter(size.getX(), size.getY(), size.getZ());
     }
 
     public void flag(MantleFlag flag, boolean f) {
-        flags.set(flag.ordinal(), f ? 1 : 0);
+        if (flags.getAndSet(flag.ordinal(), f ? 1 : 0) != (f ? 1 : 0)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Check if this chunk (flags, sections or any slice in them) was modified since it was last written or read
+     *
+     * @return true if it needs to be written
+     */
+    public boolean isDirty() {
+        if (dirty) {
+            return true;
+        }
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null && matter.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Roughly estimate the retained heap of this chunk
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateSize() {
+        CarveOccupancy c = carved;
+        long size = 64 + (flags.length() * 4L) + (sections.length() * 4L) + (c == null ? 0 : c.estimateSize());
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null) {
+                size += matter.estimateSize();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Get the carve occupancy of this chunk. It is derived from the cavern slices the first time it
+     * is needed after the chunk was created or read and then kept for the life of the chunk. Writers
+     * keep it in sync, deleting sections or cavern slices clears it in place.
+     *
+     * @return the occupancy
+     */
+    public CarveOccupancy getCarved() {
+        CarveOccupancy c = carved;
+
+        if (c != null) {
+            return c;
+        }
+
+        synchronized (this) {
+            c = carved;
+
+            if (c == null) {
+                CarveOccupancy o = new CarveOccupancy(sections.length() << 4);
+                iterate(MatterCavern.class, (x, y, z, v) -> o.set(x, y, z, true));
+                carved = c = o;
+            }
+        }
+
+        return c;
+    }
+
+    /**
+     * Check if a block of this chunk holds cavern matter
+     *
+     * @param x the chunk relative x (0-15)
+     * @param y the block y
+     * @param z the chunk relative z (0-15)
+     * @return true if it is carved
+     */
+    public boolean isCarved(int x, int y, int z) {
+        return getCarved().get(x, y, z);
+    }
+
+    /**
+     * Update the carve occupancy after cavern matter was written to (or removed from) a block.
+     * The slice must be written first.
+     *
+     * @param x      the chunk relative x (0-15)
+     * @param y      the block y
+     * @param z      the chunk relative z (0-15)
+     * @param carved true if the block now holds cavern matter
+     */
+    public void setCarved(int x, int y, int z, boolean carved) {
+        getCarved().set(x, y, z, carved);
+    }
+
+    /**
+     * Mark this chunk and all of its sections as clean
+     */
+    public void clean() {
+        dirty = false;
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null) {
+                matter.clean();
+            }
+        }
     }
 
     public void raiseFlag(MantleFlag flag, Runnable r) {
@@ -122,6 +259,19 @@ public class MantleChunk {
         return sections.get(section);
     }
 
+    /**
+     * Get the matter at the given section without creating it. Missing sections are the shared
+     * read only {@link SectionMatter#EMPTY} so only use this to read.
+     *
+     * @param section the section (0 - (worldHeight >> 4))
+     * @return the matter or the empty section
+     */
+    @ChunkCoordinates
+    public Matter getOrEmpty(int section) {
+        Matter matter = get(section);
+        return matter == null ? SectionMatter.EMPTY : matter;
+    }
+
     /**
      * Clear all matter from this chunk
      */
@@ -138,7 +288,15 @@ public class MantleChunk {
      */
     @ChunkCoordinates
     public void delete(int section) {
-        sections.set(section, null);
+        if (sections.getAndSet(section, null) != null) {
+            CarveOccupancy c = carved;
+
+            if (c != null) {
+                c.clearSection(section);
+            }
+
+            dirty = true;
+        }
     }
 
     /**
@@ -152,8 +310,12 @@ public class MantleChunk {
         Matter matter = get(section);
 
         if (matter == null) {
-            matter = new IrisMatter(16, 16, 16);
-            sections.set(section, matter);
+            Matter created = new SectionMatter();
+            matter = sections.compareAndExchange(section, null, created);
+
+            if (matter == null) {
+                matter = created;
+            }
         }
 
         return matter;
@@ -166,6 +328,18 @@ public class MantleChunk {
      * @throws IOException shit happens
      */
     public void write(DataOutputStream dos) throws IOException {
+        write(dos, null);
+    }
+
+    /**
+     * Write this chunk to a data stream
+     *
+     * @param dos   the stream
+     * @param types the slice type table of the plate, null to store types by name
+     * @throws IOException shit happens
+     */
+    public void write(DataOutputStream dos, MatterSliceTypes.Table types) throws IOException {
+        clean();
         dos.writeByte(x);
         dos.writeByte(z);
         dos.writeByte(sections.length());
@@ -180,7 +354,7 @@ public class MantleChunk {
             if (exists(i)) {
                 dos.writeBoolean(true);
                 Matter matter = get(i);
-                matter.writeDos(dos);
+                matter.writeDos(dos, types);
             } else {
                 dos.writeBoolean(false);
             }
@@ -222,8 +396,15 @@ public class MantleChunk {
             Matter m = sections.get(i);
             if (m != null && m.hasSlice(c)) {
                 m.deleteSlice(c);
+                dirty = true;
             }
         }
+
+        CarveOccupancy o = carved;
+
+        if (c == MatterCavern.class && o != null) {
+            o.clear();
+        }
     }
 
     public void trimSlices() {
@@ -0,0 +1,135 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.documentation.RegionCoordinates;
+import com.volmit.iris.util.math.Position2;
+import lombok.Getter;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads tectonic plates ahead of need. Each feed (pregen order, player movement...) publishes
+ * the regions it predicts will be needed next. Reads for regions no feed wants anymore are
+ * cancelled if they did not start yet, and only a fixed amount of reads are in flight at once.
+ */
+public class MantlePrefetcher {
+    private static final int MAX_PENDING = 8;
+    private final Mantle mantle;
+    private final KMap<String, KList<Long>> feeds;
+    private final KMap<Long, Future<TectonicPlate>> pending;
+    @Getter
+    private final LongAdder issued;
+    @Getter
+    private final LongAdder cancelled;
+
+    public MantlePrefetcher(Mantle mantle) {
+        this.mantle = mantle;
+        this.feeds = new KMap<>();
+        this.pending = new KMap<>();
+        this.issued = new LongAdder();
+        this.cancelled = new LongAdder();
+    }
+
+    /**
+     * Replace the prediction of a feed. Regions are read in the order given.
+     *
+     * @param feed    the feed name
+     * @param regions the regions predicted to be needed next (most urgent first)
+     */
+    @RegionCoordinates
+    public synchronized void predict(String feed, KList<Position2> regions) {
+        KList<Long> keys = new KList<>();
+
+        for (Position2 i : regions) {
+            Long k = Cache.key(i.getX(), i.getZ());
+
+            if (!keys.contains(k)) {
+                keys.add(k);
+            }
+        }
+
+        feeds.put(feed, keys);
+        update();
+    }
+
+    /**
+     * Drop the prediction of a feed
+     *
+     * @param feed the feed name
+     */
+    public synchronized void clear(String feed) {
+        feeds.remove(feed);
+        update();
+    }
+
+    /**
+     * Get the read already in flight for the given region, if any
+     *
+     * @param key the region key
+     * @return the future or null
+     */
+    public Future<TectonicPlate> getPending(Long key) {
+        return pending.get(key);
+    }
+
+    private void update() {
+        KSet<Long> wanted = new KSet<>();
+        feeds.values().forEach(wanted::addAll);
+
+        for (Long i : pending.k()) {
+            Future<TectonicPlate> f = pending.get(i);
+
+            if (f == null) {
+                continue;
+            }
+
+            if (f.isDone()) {
+                pending.remove(i);
+            } else if (!wanted.contains(i) && f.cancel(false)) {
+                pending.remove(i);
+                cancelled.increment();
+            }
+        }
+
+        if (mantle.isClosed()) {
+            return;
+        }
+
+        for (KList<Long> i : feeds.values()) {
+            for (Long j : i) {
+                if (pending.size() >= MAX_PENDING) {
+                    return;
+                }
+
+                if (pending.containsKey(j) || mantle.getLoadedRegions().containsKey(j)) {
+                    continue;
+                }
+
+                pending.put(j, mantle.prefetch(Cache.keyX(j), Cache.keyZ(j)));
+                issued.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.Varint;
+import com.volmit.iris.util.matter.MatterObjectHandle;
+import com.volmit.iris.util.matter.MatterObjectPlacement;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Keeps every object placement touching a tectonic plate once, so blocks only need to store
+ * an int handle into this registry instead of the full object key. Handles are only valid
+ * within the plate that owns the registry.
+ */
+public class PlacementRegistry {
+    private final KList<MatterObjectPlacement> placements;
+    private final KMap<MatterObjectPlacement, MatterObjectHandle> handles;
+    private volatile boolean dirty;
+
+    public PlacementRegistry() {
+        this.placements = new KList<>();
+        this.handles = new KMap<>();
+    }
+
+    /**
+     * Get the handle of a placement, registering it if it is not known yet
+     *
+     * @param placement the placement
+     * @return the handle
+     */
+    public MatterObjectHandle register(MatterObjectPlacement placement) {
+        MatterObjectHandle handle = handles.get(placement);
+
+        if (handle != null) {
+            return handle;
+        }
+
+        synchronized (placements) {
+            handle = handles.get(placement);
+
+            if (handle == null) {
+                handle = MatterObjectHandle.of(placements.size());
+                placements.add(placement);
+                handles.put(placement, handle);
+                dirty = true;
+            }
+
+            return handle;
+        }
+    }
+
+    /**
+     * Resolve a handle
+     *
+     * @param handle the handle
+     * @return the placement or null if the handle is unknown
+     */
+    public MatterObjectPlacement get(MatterObjectHandle handle) {
+        synchronized (placements) {
+            int h = handle.getHandle();
+            return h >= 0 && h < placements.size() ? placements.get(h) : null;
+        }
+    }
+
+    public int size() {
+        synchronized (placements) {
+            return placements.size();
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public long estimateSize() {
+        long size = 64;
+
+        synchronized (placements) {
+            for (MatterObjectPlacement i : placements) {
+                size += 72 + (i.getObject().length() * 2L);
+            }
+        }
+
+        return size;
+    }
+
+    public void write(DataOutputStream dos) throws IOException {
+        synchronized (placements) {
+            dirty = false;
+            Varint.writeUnsignedVarInt(placements.size(), dos);
+
+            for (MatterObjectPlacement i : placements) {
+                dos.writeUTF(i.getObject());
+                dos.writeInt(i.getId());
+                dos.writeInt(i.getX());
+                dos.writeInt(i.getZ());
+            }
+        }
+    }
+
+    public void read(DataInputStream din) throws IOException {
+        synchronized (placements) {
+            int size = Varint.readUnsignedVarInt(din);
+
+            for (int i = 0; i < size; i++) {
+                MatterObjectPlacement p = new MatterObjectPlacement(din.readUTF(), din.readInt(), din.readInt(), din.readInt());
+                handles.put(p, MatterObjectHandle.of(placements.size()));
+                placements.add(p);
+            }
+
+            dirty = false;
+        }
+    }
+}
@@ -24,21 +24,63 @@ import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterObjectHandle;
+import com.volmit.iris.util.matter.MatterObjectPlacement;
+import com.volmit.iris.util.matter.MatterSlice;
+import com.volmit.iris.util.matter.MatterSliceTypes;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Getter;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Tectonic Plates are essentially representations of regions in minecraft.
  * Tectonic Plates are fully atomic & thread safe
+ * <p>
+ * On disk a plate is stored like a vanilla region file
+ * <p>
+ * INT magic
+ * BYTE version
+ * INT x
+ * INT z
+ * INT[1024] offset (from the start of the file, 0 if the chunk is absent)
+ * INT[1024] length
+ * INT placement registry offset (version 2+)
+ * INT placement registry length (version 2+)
+ * INT slice type table offset (version 3+)
+ * INT slice type table length (version 3+)
+ * ??? independently deflated chunk payloads
+ * ??? placement registry
+ * ??? slice type table, chunks of version 3+ refer to slice types by id in it
+ * <p>
+ * Chunks read from such a file are kept packed until they are first touched. The packed
+ * bytes are kept next to the unpacked chunk, so chunks that were not modified since they were
+ * last read or written are copied back out as-is on write instead of being deflated again.
+ * Plates written by older versions (one gzip stream) are still read in full.
  */
 public class TectonicPlate {
+    public static final int MAGIC = 0x49545052;
+    public static final int VERSION = 3;
+    private static final int HEADER_SIZE = 13 + (1024 * 8) + 16;
     private final int sectionHeight;
     private final AtomicReferenceArray<MantleChunk> chunks;
+    private final AtomicReferenceArray<byte[]> packed;
+    private final LongAdder uses;
+    private final MatterSliceTypes.Table types;
+    private volatile boolean dirty;
+    private volatile boolean namedPacked;
+
+    @Getter
+    private final PlacementRegistry placements;
 
     @Getter
     private final int x;
@@ -54,12 +96,16 @@ public class TectonicPlate {
     public TectonicPlate(int worldHeight, int x, int z) {
         this.sectionHeight = worldHeight >> 4;
         this.chunks = new AtomicReferenceArray<>(1024);
+        this.packed = new AtomicReferenceArray<>(1024);
+        this.uses = new LongAdder();
+        this.placements = new PlacementRegistry();
+        this.types = new MatterSliceTypes.Table();
         this.x = x;
         this.z = z;
     }
 
     /**
-     * Load a tectonic plate from a data stream
+     * Load a tectonic plate from a (legacy) data stream
      *
      * @param worldHeight the height of the world
      * @param din         the data input
@@ -77,7 +123,142 @@ public class TectonicPlate {
         }
     }
 
+    /**
+     * Read a tectonic plate from a file in either the region or the legacy format.
+     * Region format chunks are only inflated once they are accessed.
+     *
+     * @param worldHeight the height of the world
+     * @param file        the file
+     * @return the plate
+     */
     public static TectonicPlate read(int worldHeight, File file) throws IOException, ClassNotFoundException {
+        if (isLegacy(file)) {
+            return readLegacy(worldHeight, file);
+        }
+
+        byte[] data = Files.readAllBytes(file.toPath());
+        DataInputStream din = new DataInputStream(new ByteArrayInputStream(data));
+        int version = readHeader(din, file);
+        TectonicPlate p = new TectonicPlate(worldHeight, din.readInt(), din.readInt());
+        int[] offsets = new int[1024];
+        int[] lengths = new int[1024];
+
+        for (int i = 0; i < 1024; i++) {
+            offsets[i] = din.readInt();
+        }
+
+        for (int i = 0; i < 1024; i++) {
+            lengths[i] = din.readInt();
+        }
+
+        if (version >= 2) {
+            int registryOffset = din.readInt();
+            int registryLength = din.readInt();
+
+            if (registryLength > 0) {
+                p.placements.read(new DataInputStream(new ByteArrayInputStream(data, registryOffset, registryLength)));
+            }
+        }
+
+        if (version >= 3) {
+            int typesOffset = din.readInt();
+            int typesLength = din.readInt();
+
+            if (typesLength > 0) {
+                p.types.read(new DataInputStream(new ByteArrayInputStream(data, typesOffset, typesLength)));
+            }
+        } else {
+            p.namedPacked = true;
+        }
+
+        for (int i = 0; i < 1024; i++) {
+            if (lengths[i] > 0) {
+                byte[] chunk = new byte[lengths[i]];
+                System.arraycopy(data, offsets[i], chunk, 0, lengths[i]);
+                p.packed.set(i, chunk);
+            }
+        }
+
+        return p;
+    }
+
+    /**
+     * Read a single chunk out of a region format plate file without loading the rest of the plate
+     *
+     * @param worldHeight the height of the world
+     * @param file        the plate file
+     * @param x           the chunk relative x (0-31)
+     * @param z           the chunk relative z (0-31)
+     * @return the chunk, or null if it doesnt exist
+     */
+    @ChunkCoordinates
+    public static MantleChunk readChunk(int worldHeight, File file, int x, int z) throws IOException, ClassNotFoundException {
+        if (isLegacy(file)) {
+            return readLegacy(worldHeight, file).get(x, z);
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(4);
+            int version = raf.readByte();
+            MatterSliceTypes.Table types = null;
+
+            if (version >= 3) {
+                raf.seek(13 + (1024 * 8L) + 8);
+                int typesOffset = raf.readInt();
+                int typesLength = raf.readInt();
+                byte[] table = new byte[typesLength];
+                raf.seek(typesOffset);
+                raf.readFully(table);
+                types = new MatterSliceTypes.Table();
+                types.read(new DataInputStream(new ByteArrayInputStream(table)));
+            }
+
+            int index = Cache.to1D(x & 31, z & 31, 0, 32, 32);
+            raf.seek(13 + (index * 4L));
+            int offset = raf.readInt();
+            raf.seek(13 + (1024 * 4L) + (index * 4L));
+            int length = raf.readInt();
+
+            if (length <= 0) {
+                return null;
+            }
+
+            byte[] chunk = new byte[length];
+            raf.seek(offset);
+            raf.readFully(chunk);
+            return unpack(worldHeight >> 4, chunk, types);
+        }
+    }
+
+    /**
+     * Get the format version of a plate file
+     *
+     * @param file the plate file
+     * @return the version, 0 for the legacy format
+     */
+    public static int readVersion(File file) throws IOException {
+        if (isLegacy(file)) {
+            return 0;
+        }
+
+        try (DataInputStream din = new DataInputStream(new FileInputStream(file))) {
+            return readHeader(din, file);
+        }
+    }
+
+    /**
+     * Check if a plate file was written in the legacy (single gzip stream) format
+     *
+     * @param file the plate file
+     * @return true if it is gzip
+     */
+    public static boolean isLegacy(File file) throws IOException {
+        try (FileInputStream fin = new FileInputStream(file)) {
+            return fin.read() == 0x1f && fin.read() == 0x8b;
+        }
+    }
+
+    private static TectonicPlate readLegacy(int worldHeight, File file) throws IOException, ClassNotFoundException {
         FileInputStream fin = new FileInputStream(file);
         GZIPInputStream gzi = new GZIPInputStream(fin);
         DataInputStream din = new DataInputStream(gzi);
@@ -87,6 +268,36 @@ public class TectonicPlate {
         return p;
     }
 
+    private static int readHeader(DataInputStream din, File file) throws IOException {
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Not a tectonic plate " + file.getAbsolutePath());
+        }
+
+        int version = din.readByte();
+
+        if (version > VERSION) {
+            throw new IOException("Tectonic plate " + file.getName() + " is version " + version + " but we can only read up to " + VERSION);
+        }
+
+        return version;
+    }
+
+    private static MantleChunk unpack(int sectionHeight, byte[] data, MatterSliceTypes.Table types) throws IOException, ClassNotFoundException {
+        DataInputStream din = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)));
+        MantleChunk chunk = new MantleChunk(sectionHeight, din, types);
+        din.close();
+        return chunk;
+    }
+
+    private static byte[] pack(MantleChunk chunk, MatterSliceTypes.Table types) throws IOException {
+        ByteArrayOutputStream boas = new ByteArrayOutputStream();
+        DeflaterOutputStream dos = new DeflaterOutputStream(boas, new Deflater(Deflater.BEST_SPEED));
+        DataOutputStream out = new DataOutputStream(dos);
+        chunk.write(out, types);
+        out.close();
+        return boas.toByteArray();
+    }
+
     /**
      * Check if a chunk exists in this plate or not (same as get(x, z) != null)
      *
@@ -96,7 +307,8 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public boolean exists(int x, int z) {
-        return get(x, z) != null;
+        int index = index(x, z);
+        return chunks.get(index) != null || packed.get(index) != null;
     }
 
     /**
@@ -108,7 +320,48 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public MantleChunk get(int x, int z) {
-        return chunks.get(index(x, z));
+        int index = index(x, z);
+        MantleChunk chunk = chunks.get(index);
+
+        if (chunk == null && packed.get(index) != null) {
+            return unpack(index);
+        }
+
+        return chunk;
+    }
+
+    private MantleChunk unpack(int index) {
+        synchronized (packed) {
+            MantleChunk chunk = chunks.get(index);
+
+            if (chunk != null) {
+                return chunk;
+            }
+
+            byte[] data = packed.get(index);
+
+            if (data == null) {
+                return null;
+            }
+
+            try {
+                chunk = unpack(sectionHeight, data, namedPacked ? null : types);
+            } catch (Throwable e) {
+                Iris.error("Failed to read Mantle Chunk " + index + " of Tectonic Plate " + x + " " + z + " creating a new chunk instead.");
+                Iris.reportError(e);
+                e.printStackTrace();
+                chunk = new MantleChunk(sectionHeight, index & 31, index >> 5);
+                data = null;
+            }
+
+            chunks.set(index, chunk);
+
+            if (namedPacked || data == null) {
+                packed.set(index, null);
+            }
+
+            return chunk;
+        }
     }
 
     /**
@@ -117,7 +370,167 @@ public class TectonicPlate {
     public void clear() {
         for (int i = 0; i < chunks.length(); i++) {
             chunks.set(i, null);
+            packed.set(i, null);
         }
+
+        dirty = true;
+    }
+
+    /**
+     * Count a use of this plate (for frequency based eviction)
+     */
+    public void touch() {
+        uses.increment();
+    }
+
+    /**
+     * Get the amount of times this plate was used since it was loaded
+     *
+     * @return the use count
+     */
+    public long getUses() {
+        return uses.sum();
+    }
+
+    /**
+     * Roughly estimate the retained heap of this plate, packed bytes count with their compressed size
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateSize() {
+        long size = 64 + (1024 * 8L) + placements.estimateSize();
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+
+            if (chunk != null) {
+                size += chunk.estimateSize();
+            }
+
+            byte[] data = packed.get(i);
+
+            if (data != null) {
+                size += data.length;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Check if this plate has anything that was not written yet. Packed chunks are always clean.
+     *
+     * @return true if this plate needs to be written
+     */
+    public boolean isDirty() {
+        if (dirty || placements.isDirty()) {
+            return true;
+        }
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+
+            if (chunk != null && chunk.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Move object keys that older plates stored as a string per block ("object@id") into the
+     * placement registry. The origin of such placements is unknown so it is left at 0 0.
+     *
+     * @return the amount of blocks converted
+     */
+    public int convertObjectKeys() {
+        int[] converted = {0};
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = get(i & 31, i >> 5);
+
+            if (chunk == null) {
+                continue;
+            }
+
+            for (int j = 0; j < sectionHeight; j++) {
+                Matter matter = chunk.get(j);
+
+                if (matter == null || !matter.hasSlice(String.class)) {
+                    continue;
+                }
+
+                MatterSlice<String> keys = matter.getSlice(String.class);
+                MatterSlice<MatterObjectHandle> handles = matter.slice(MatterObjectHandle.class);
+                boolean[] kept = {false};
+                keys.iterateSync((xx, yy, zz, v) -> {
+                    String[] k = v.split("\\Q@\\E");
+
+                    try {
+                        handles.set(xx, yy, zz, placements.register(new MatterObjectPlacement(k[0], Integer.parseInt(k[1]), 0, 0)));
+                        converted[0]++;
+                    } catch (Throwable e) {
+                        kept[0] = true;
+                    }
+                });
+
+                if (!kept[0]) {
+                    matter.deleteSlice(String.class);
+                }
+            }
+        }
+
+        return converted[0];
+    }
+
+    /**
+     * Take over every chunk the other plate holds and this one does not. Object handles in the
+     * adopted chunks are registered again in this plate's placement registry.
+     *
+     * @param other a plate of the same region
+     * @return the amount of chunks adopted
+     */
+    public int adopt(TectonicPlate other) {
+        int adopted = 0;
+
+        for (int i = 0; i < chunks.length(); i++) {
+            if (exists(i & 31, i >> 5)) {
+                continue;
+            }
+
+            MantleChunk chunk = other.get(i & 31, i >> 5);
+
+            if (chunk == null) {
+                continue;
+            }
+
+            for (int j = 0; j < sectionHeight; j++) {
+                Matter matter = chunk.get(j);
+
+                if (matter == null || !matter.hasSlice(MatterObjectHandle.class)) {
+                    continue;
+                }
+
+                MatterSlice<MatterObjectHandle> handles = matter.getSlice(MatterObjectHandle.class);
+                handles.iterateSync((xx, yy, zz, v) -> {
+                    MatterObjectPlacement placement = other.getPlacements().get(v);
+
+                    if (placement != null) {
+                        handles.set(xx, yy, zz, placements.register(placement));
+                    }
+                });
+            }
+
+            chunks.set(i, chunk);
+            adopted++;
+        }
+
+        if (adopted > 0) {
+            dirty = true;
+        }
+
+        return adopted;
     }
 
     /**
@@ -128,7 +541,14 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public void delete(int x, int z) {
-        chunks.set(index(x, z), null);
+        int index = index(x, z);
+
+        synchronized (packed) {
+            chunks.set(index, null);
+            packed.set(index, null);
+        }
+
+        dirty = true;
     }
 
     /**
@@ -144,7 +564,10 @@ public class TectonicPlate {
 
         if (chunk == null) {
             chunk = new MantleChunk(sectionHeight, x & 31, z & 31);
-            chunks.set(index(x, z), chunk);
+
+            if (!chunks.compareAndSet(index(x, z), null, chunk)) {
+                return get(x, z);
+            }
         }
 
         return chunk;
@@ -156,23 +579,98 @@ public class TectonicPlate {
     }
 
     /**
-     * Write this tectonic plate to file
+     * Write this tectonic plate to file. The plate is written next to the file first
+     * and then moved over it so a crash mid write never leaves a torn plate behind. The plate is
+     * marked clean up front (so changes racing the write dirty it again) and marked dirty again if
+     * the write fails, so a failed write is retried on the next save instead of being dropped.
      *
      * @param file the file to writeNodeData it to
      * @throws IOException shit happens
      */
     public void write(File file) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        dirty = false;
+
+        try {
+            writePlate(file, temp);
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            temp.delete();
+            throw e;
+        }
+    }
+
+    private void writePlate(File file, File temp) throws IOException {
         PrecisionStopwatch p = PrecisionStopwatch.start();
-        FileOutputStream fos = new FileOutputStream(file);
-        GZIPOutputStream gzo = new GZIPOutputStream(fos);
-        DataOutputStream dos = new DataOutputStream(gzo);
-        write(dos);
-        dos.close();
+        byte[][] payloads = new byte[1024][];
+
+        if (namedPacked) {
+            for (int i = 0; i < 1024; i++) {
+                get(i & 31, i >> 5);
+            }
+
+            namedPacked = false;
+        }
+
+        for (int i = 0; i < 1024; i++) {
+            MantleChunk chunk = chunks.get(i);
+            byte[] data = packed.get(i);
+
+            if (chunk != null && (data == null || chunk.isDirty())) {
+                packed.set(i, null);
+                data = pack(chunk, types);
+                packed.set(i, data);
+            }
+
+            payloads[i] = data;
+        }
+
+        ByteArrayOutputStream registry = new ByteArrayOutputStream();
+        placements.write(new DataOutputStream(registry));
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        types.write(new DataOutputStream(table));
+
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            writePayloads(dos, payloads, registry, table);
+        }
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         Iris.debug("Saved Tectonic Plate " + C.DARK_GREEN + file.getName().split("\\Q.\\E")[0] + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
     }
 
+    private void writePayloads(DataOutputStream dos, byte[][] payloads, ByteArrayOutputStream registry, ByteArrayOutputStream table) throws IOException {
+        dos.writeInt(MAGIC);
+        dos.writeByte(VERSION);
+        dos.writeInt(x);
+        dos.writeInt(z);
+        int offset = HEADER_SIZE;
+
+        for (byte[] i : payloads) {
+            dos.writeInt(i == null ? 0 : offset);
+            offset += i == null ? 0 : i.length;
+        }
+
+        for (byte[] i : payloads) {
+            dos.writeInt(i == null ? 0 : i.length);
+        }
+
+        dos.writeInt(offset);
+        dos.writeInt(registry.size());
+        dos.writeInt(offset + registry.size());
+        dos.writeInt(table.size());
+
+        for (byte[] i : payloads) {
+            if (i != null) {
+                dos.write(i);
+            }
+        }
+
+        registry.writeTo(dos);
+        table.writeTo(dos);
+    }
+
     /**
-     * Write this tectonic plate to a data stream
+     * Write this tectonic plate to a data stream in the legacy format
      *
      * @param dos the data output
      * @throws IOException shit happens
@@ -182,7 +680,7 @@ public class TectonicPlate {
         dos.writeInt(z);
 
         for (int i = 0; i < chunks.length(); i++) {
-            MantleChunk chunk = chunks.get(i);
+            MantleChunk chunk = get(i & 31, i >> 5);
 
             if (chunk != null) {
                 dos.writeBoolean(true);
@@ -31,6 +31,39 @@ public class Spiraler {
         retarget(sizeX, sizeZ);
     }
 
+    /**
+     * Get the point the spiral visits at the given step without walking it. Matches the order
+     * {@link #next()} visits points in, ignoring the size bounds.
+     *
+     * @param index the step (0 is the origin)
+     * @return the point
+     */
+    public static Position2 get(long index) {
+        if (index <= 0) {
+            return new Position2(0, 0);
+        }
+
+        int k = (int) ((Math.sqrt(index) + 1) / 2);
+
+        while ((2L * k + 1) * (2L * k + 1) <= index) {
+            k++;
+        }
+
+        while ((2L * k - 1) * (2L * k - 1) > index) {
+            k--;
+        }
+
+        long m = index - (2L * k - 1) * (2L * k - 1);
+        int o = (int) (m % (2L * k));
+
+        return switch ((int) (m / (2L * k))) {
+            case 0 -> new Position2(k, 1 - k + o);
+            case 1 -> new Position2(k - 1 - o, k);
+            case 2 -> new Position2(-k, k - 1 - o);
+            default -> new Position2(-k + 1 + o, -k);
+        };
+    }
+
     static void Spiral(int X, int Y) {
 
     }
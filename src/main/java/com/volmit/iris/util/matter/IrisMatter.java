@@ -60,6 +60,7 @@ public class IrisMatter extends IrisRegistrant implements Matter {
         for (Object i : Iris.initialize("com.volmit.iris.util.matter.slices", Sliced.class)) {
             MatterSlice<?> s = (MatterSlice<?>) i;
             c.put(s.getType(), s);
+            MatterSliceTypes.discover(s);
         }
 
         return c;
@@ -67,19 +68,11 @@ public class IrisMatter extends IrisRegistrant implements Matter {
 
     @Override
     public <T> MatterSlice<T> createSlice(Class<T> type, Matter m) {
-        MatterSlice<?> slice = slicers.get(type);
-
-        if (slice == null) {
+        if (!slicers.containsKey(type)) {
             return null;
         }
 
-        try {
-            return slice.getClass().getConstructor(int.class, int.class, int.class).newInstance(getWidth(), getHeight(), getDepth());
-        } catch (Throwable e) {
-            e.printStackTrace();
-        }
-
-        return null;
+        return MatterSliceTypes.create(type, getWidth(), getHeight(), getDepth());
     }
 
     @Override
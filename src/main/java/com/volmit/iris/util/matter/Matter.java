@@ -22,6 +22,7 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.engine.object.IrisPosition;
 import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.math.BlockPosition;
 import org.bukkit.World;
@@ -44,7 +45,7 @@ import java.util.function.Function;
  * UTF author
  * UVL createdAt
  * UVI version
- * UTF sliceType (canonical class name)
+ * UTF sliceType (canonical class name) or UVI sliceType (id in the plate's type table)
  * UVI nodeCount (for each slice)
  * UVI position [(z * w * h) + (y * w) + x]
  * ??? nodeData
@@ -125,29 +126,46 @@ public interface Matter {
     }
 
     static Matter readDin(DataInputStream din, Function<BlockPosition, Matter> matterFactory) throws IOException, ClassNotFoundException {
+        return readDin(din, matterFactory, null);
+    }
+
+    /**
+     * Reads matter whose slice types are either stored by name (legacy) or by id in a type table
+     *
+     * @param din           the input
+     * @param matterFactory the matter factory (size) -> new MatterImpl(size);
+     * @param types         the type table of the plate the matter belongs to, or null if slice
+     *                      types are stored by name
+     * @return the matter object
+     */
+    static Matter readDin(DataInputStream din, Function<BlockPosition, Matter> matterFactory, MatterSliceTypes.Table types) throws IOException, ClassNotFoundException {
         Matter matter = matterFactory.apply(new BlockPosition(
                 din.readInt(),
                 din.readInt(),
                 din.readInt()));
-        Iris.addPanic("read.matter.size", matter.getWidth() + "x" + matter.getHeight() + "x" + matter.getDepth());
         int sliceCount = din.readByte();
-        Iris.addPanic("read.matter.slicecount", sliceCount + "");
-
         matter.getHeader().read(din);
-        Iris.addPanic("read.matter.header", matter.getHeader().toString());
 
         for (int i = 0; i < sliceCount; i++) {
-            Iris.addPanic("read.matter.slice", i + "");
-            String cn = din.readUTF();
-            Iris.addPanic("read.matter.slice.class", cn);
+            Class<?> type;
+            String cn;
+
+            if (types == null) {
+                cn = din.readUTF();
+                type = MatterSliceTypes.forName(cn);
+            } else {
+                int id = Varint.readUnsignedVarInt(din);
+                cn = types.name(id);
+                type = types.type(id);
+            }
+
             try {
-                Class<?> type = Class.forName(cn);
                 MatterSlice<?> slice = matter.createSlice(type, matter);
                 slice.read(din);
                 matter.putSlice(type, slice);
             } catch (Throwable e) {
                 e.printStackTrace();
-                throw new IOException("Can't read class '" + cn + "' (slice count reverse at " + sliceCount + ")");
+                throw new IOException("Can't read class '" + cn + "' (slice " + i + " of " + sliceCount + ", " + matter.getWidth() + "x" + matter.getHeight() + "x" + matter.getDepth() + ")");
             }
         }
 
@@ -407,6 +425,16 @@ public interface Matter {
     }
 
     default void writeDos(DataOutputStream dos) throws IOException {
+        writeDos(dos, null);
+    }
+
+    /**
+     * Writes the data with slice types stored by id in the given table, or by name if it is null
+     *
+     * @param dos   the output
+     * @param types the type table of the plate this matter belongs to, or null
+     */
+    default void writeDos(DataOutputStream dos, MatterSliceTypes.Table types) throws IOException {
         trimSlices();
         dos.writeInt(getWidth());
         dos.writeInt(getHeight());
@@ -415,8 +443,52 @@ public interface Matter {
         getHeader().write(dos);
 
         for (Class<?> i : getSliceTypes()) {
-            getSlice(i).write(dos);
+            if (types == null) {
+                getSlice(i).write(dos);
+            } else {
+                Varint.writeUnsignedVarInt(types.id(i), dos);
+                getSlice(i).writeData(dos);
+            }
+        }
+    }
+
+    /**
+     * Check if any slice was modified since this matter was last cleaned
+     *
+     * @return true if it was modified
+     */
+    default boolean isDirty() {
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            if (i.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Mark all slices as clean
+     */
+    default void clean() {
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            i.clean();
+        }
+    }
+
+    /**
+     * Roughly estimate the retained heap of this matter and all of its slices
+     *
+     * @return the estimated size in bytes
+     */
+    default long estimateSize() {
+        long size = 128;
+
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            size += i.estimateSize();
         }
+
+        return size;
     }
 
     default int getTotalCount() {
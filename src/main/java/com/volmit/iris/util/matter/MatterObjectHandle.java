@@ -0,0 +1,50 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter;
+
+import lombok.Data;
+
+/**
+ * A handle into the placement registry of the plate it is stored in. Handles are interned
+ * so marking every block of an object does not allocate anything.
+ */
+@Data
+public class MatterObjectHandle {
+    private static final MatterObjectHandle[] handles = new MatterObjectHandle[4096];
+    private final int handle;
+
+    private MatterObjectHandle(int handle) {
+        this.handle = handle;
+    }
+
+    public static MatterObjectHandle of(int handle) {
+        if (handle < 0 || handle >= handles.length) {
+            return new MatterObjectHandle(handle);
+        }
+
+        MatterObjectHandle h = handles[handle];
+
+        if (h == null) {
+            h = new MatterObjectHandle(handle);
+            handles[handle] = h;
+        }
+
+        return h;
+    }
+}
@@ -61,6 +61,31 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
         return readNode(din);
     }
 
+    /**
+     * Check if this slice was modified since it was last cleaned
+     *
+     * @return true if it may have been modified
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
+    /**
+     * Mark this slice as clean (usually right before it is written)
+     */
+    default void clean() {
+
+    }
+
+    /**
+     * Roughly estimate the retained heap of this slice
+     *
+     * @return the estimated size in bytes
+     */
+    default long estimateSize() {
+        return 64L + (getEntryCount() * 16L);
+    }
+
     default void applyFilter(MatterFilter<T> filter) {
         updateSync(filter::update);
     }
@@ -159,7 +184,15 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
 
     default void write(DataOutputStream dos) throws IOException {
         dos.writeUTF(getType().getCanonicalName());
+        writeData(dos);
+    }
 
+    /**
+     * Write the slice without its type name, see {@link MatterSliceTypes}
+     *
+     * @param dos the output
+     */
+    default void writeData(DataOutputStream dos) throws IOException {
         if ((this instanceof PaletteOrHunk f && f.isPalette())) {
             f.palette().writeDos(dos);
             return;
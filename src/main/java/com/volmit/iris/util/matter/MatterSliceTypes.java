@@ -0,0 +1,214 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.Varint;
+import com.volmit.iris.util.matter.slices.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+
+/**
+ * Creates matter slices without reflection and maps slice types to compact ids. Every known slice
+ * registers a constructor reference. Slices only found by scanning for {@link Sliced} fall back to a
+ * constructor looked up once.
+ * <p>
+ * Ids are not global. Each plate keeps a {@link Table} of the types it uses and writes it once in
+ * its header, sections then refer to slice types by varint id instead of class name. Separately every
+ * type gets a process wide {@link #index(Class)} which in memory containers use to keep slices in arrays.
+ */
+public class MatterSliceTypes {
+    private static final KMap<Class<?>, SliceFactory> factories = new KMap<>();
+    private static final KMap<String, Class<?>> names = new KMap<>();
+    private static final KMap<Class<?>, Integer> indices = new KMap<>();
+
+    static {
+        register(BiomeInjectMatter::new);
+        register(BlockMatter::new);
+        register(BooleanMatter::new);
+        register(CavernMatter::new);
+        register(CompoundMatter::new);
+        register(EntityMatter::new);
+        register(IntMatter::new);
+        register(LongMatter::new);
+        register(MarkerMatter::new);
+        register(ObjectHandleMatter::new);
+        register(SpawnerMatter::new);
+        register(StringMatter::new);
+        register(TileMatter::new);
+        register(UpdateMatter::new);
+    }
+
+    private static void register(SliceFactory factory) {
+        Class<?> type = factory.create(1, 1, 1).getType();
+        factories.put(type, factory);
+        names.put(type.getCanonicalName(), type);
+        indices.put(type, indices.size());
+    }
+
+    /**
+     * Add a slice discovered at runtime that has no registered constructor reference
+     *
+     * @param prototype an instance of the slice
+     */
+    public static void discover(MatterSlice<?> prototype) {
+        if (factories.containsKey(prototype.getType())) {
+            return;
+        }
+
+        try {
+            Constructor<?> c = prototype.getClass().getConstructor(int.class, int.class, int.class);
+            factories.put(prototype.getType(), (w, h, d) -> {
+                try {
+                    return (MatterSlice<?>) c.newInstance(w, h, d);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Cannot create slice " + prototype.getClass().getSimpleName(), e);
+                }
+            });
+            names.put(prototype.getType().getCanonicalName(), prototype.getType());
+            index(prototype.getType());
+        } catch (NoSuchMethodException e) {
+            Iris.reportError(e);
+        }
+    }
+
+    /**
+     * Create a slice for a type
+     *
+     * @return the slice or null if the type has no slice
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MatterSlice<T> create(Class<T> type, int w, int h, int d) {
+        SliceFactory f = factories.get(type);
+        return f == null ? null : (MatterSlice<T>) f.create(w, h, d);
+    }
+
+    /**
+     * Get the process wide index of a slice type. Indices are dense and never reused, but they are
+     * not stable across restarts so they must never be written anywhere.
+     *
+     * @param type the slice type
+     * @return the index
+     */
+    public static int index(Class<?> type) {
+        Integer i = indices.get(type);
+
+        if (i != null) {
+            return i;
+        }
+
+        synchronized (indices) {
+            return indices.computeIfAbsent(type, (k) -> indices.size());
+        }
+    }
+
+    /**
+     * Get a slice type by the canonical name the legacy format stores
+     *
+     * @param name the canonical class name
+     * @return the type
+     * @throws ClassNotFoundException if it is not a known type or a loadable class
+     */
+    public static Class<?> forName(String name) throws ClassNotFoundException {
+        Class<?> c = names.get(name);
+        return c != null ? c : Class.forName(name);
+    }
+
+    @FunctionalInterface
+    public interface SliceFactory {
+        MatterSlice<?> create(int w, int h, int d);
+    }
+
+    /**
+     * The slice types used by one plate in the order they were first used. Ids only ever get
+     * appended so packed chunks written with an older table stay readable.
+     */
+    public static class Table {
+        private final KList<Class<?>> types = new KList<>();
+        private final KList<String> typeNames = new KList<>();
+        private final KMap<Class<?>, Integer> ids = new KMap<>();
+
+        public synchronized int id(Class<?> type) {
+            Integer id = ids.get(type);
+
+            if (id == null) {
+                id = types.size();
+                types.add(type);
+                typeNames.add(type.getCanonicalName());
+                ids.put(type, id);
+            }
+
+            return id;
+        }
+
+        /**
+         * @return the type of an id, null if the type was unknown when the table was read
+         */
+        public synchronized Class<?> type(int id) throws IOException {
+            if (id < 0 || id >= types.size()) {
+                throw new IOException("Unknown slice type id " + id + " (table has " + types.size() + ")");
+            }
+
+            return types.get(id);
+        }
+
+        public synchronized String name(int id) {
+            return id >= 0 && id < typeNames.size() ? typeNames.get(id) : String.valueOf(id);
+        }
+
+        public synchronized int size() {
+            return types.size();
+        }
+
+        public synchronized void write(DataOutputStream dos) throws IOException {
+            Varint.writeUnsignedVarInt(types.size(), dos);
+
+            for (String i : typeNames) {
+                dos.writeUTF(i);
+            }
+        }
+
+        public synchronized void read(DataInputStream din) throws IOException {
+            int count = Varint.readUnsignedVarInt(din);
+
+            for (int i = 0; i < count; i++) {
+                String name = din.readUTF();
+                Class<?> type;
+
+                try {
+                    type = forName(name);
+                } catch (ClassNotFoundException e) {
+                    type = null;
+                }
+
+                types.add(type);
+                typeNames.add(name);
+
+                if (type != null) {
+                    ids.put(type, i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A 16x16x16 mantle section. Unlike {@link IrisMatter} this is not a registrant and keeps no header
+ * or slice map, slices live in a small array indexed by {@link MatterSliceTypes#index(Class)} and
+ * are only created once something is written to them.
+ * <p>
+ * The array is replaced (never mutated) when a slice is added or removed so reads need no locking.
+ * {@link #EMPTY} is a shared read only section to hand out where a missing section should read as empty.
+ */
+public class SectionMatter implements Matter {
+    public static final int SIZE = 16;
+    public static final SectionMatter EMPTY = new SectionMatter(true);
+    private static final MatterSlice<?>[] NONE = new MatterSlice<?>[0];
+    private final boolean frozen;
+    private volatile MatterSlice<?>[] slices;
+
+    public SectionMatter() {
+        this(false);
+    }
+
+    private SectionMatter(boolean frozen) {
+        this.frozen = frozen;
+        this.slices = NONE;
+    }
+
+    /**
+     * @return true if this is the shared empty section which cannot hold slices
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public MatterHeader getHeader() {
+        return new MatterHeader();
+    }
+
+    @Override
+    public int getWidth() {
+        return SIZE;
+    }
+
+    @Override
+    public int getHeight() {
+        return SIZE;
+    }
+
+    @Override
+    public int getDepth() {
+        return SIZE;
+    }
+
+    @Override
+    public <T> MatterSlice<T> createSlice(Class<T> type, Matter m) {
+        if (!IrisMatter.slicers.containsKey(type)) {
+            return null;
+        }
+
+        return MatterSliceTypes.create(type, SIZE, SIZE, SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> MatterSlice<T> getSlice(Class<T> t) {
+        MatterSlice<?>[] s = slices;
+        int i = MatterSliceTypes.index(t);
+        return i < s.length ? (MatterSlice<T>) s[i] : null;
+    }
+
+    @Override
+    public boolean hasSlice(Class<?> c) {
+        return getSlice(c) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> MatterSlice<T> slice(Class<?> c) {
+        if (frozen) {
+            return (MatterSlice<T>) getSlice(c);
+        }
+
+        return Matter.super.slice(c);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized <T> MatterSlice<T> putSlice(Class<?> c, MatterSlice<T> slice) {
+        if (frozen) {
+            throw new UnsupportedOperationException("The empty section is read only");
+        }
+
+        int i = MatterSliceTypes.index(c);
+        MatterSlice<?>[] s = slices;
+        MatterSlice<?>[] n = new MatterSlice<?>[Math.max(s.length, i + 1)];
+        System.arraycopy(s, 0, n, 0, s.length);
+        MatterSlice<?> old = n[i];
+        n[i] = slice;
+        slices = n;
+        return (MatterSlice<T>) old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized <T> MatterSlice<T> deleteSlice(Class<?> c) {
+        int i = MatterSliceTypes.index(c);
+        MatterSlice<?>[] s = slices;
+
+        if (i >= s.length || s[i] == null) {
+            return null;
+        }
+
+        MatterSlice<?>[] n = s.clone();
+        n[i] = null;
+        slices = n;
+        return (MatterSlice<T>) s[i];
+    }
+
+    @Override
+    public synchronized void clearSlices() {
+        slices = NONE;
+    }
+
+    @Override
+    public boolean isDirty() {
+        for (MatterSlice<?> i : slices) {
+            if (i != null && i.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void clean() {
+        for (MatterSlice<?> i : slices) {
+            if (i != null) {
+                i.clean();
+            }
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        MatterSlice<?>[] s = slices;
+        long size = 32 + (s.length * 4L);
+
+        for (MatterSlice<?> i : s) {
+            if (i != null) {
+                size += i.estimateSize();
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public int getTotalCount() {
+        int m = 0;
+
+        for (MatterSlice<?> i : slices) {
+            if (i != null) {
+                m += i.getEntryCount();
+            }
+        }
+
+        return m;
+    }
+
+    /**
+     * A live map view over the slice array. Only the generic matter code (writing, trimming,
+     * rotating) goes through it, the hot paths use the array directly.
+     */
+    @Override
+    public Map<Class<?>, MatterSlice<?>> getSliceMap() {
+        return new AbstractMap<>() {
+            @Override
+            public MatterSlice<?> get(Object key) {
+                return key instanceof Class<?> c ? getSlice(c) : null;
+            }
+
+            @Override
+            public MatterSlice<?> put(Class<?> key, MatterSlice<?> value) {
+                return putSlice(key, value);
+            }
+
+            @Override
+            public MatterSlice<?> remove(Object key) {
+                return key instanceof Class<?> c ? deleteSlice(c) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public void clear() {
+                clearSlices();
+            }
+
+            @Override
+            public Set<Entry<Class<?>, MatterSlice<?>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<Class<?>, MatterSlice<?>>> iterator() {
+                        return new SliceIterator(slices);
+                    }
+
+                    @Override
+                    public int size() {
+                        int c = 0;
+
+                        for (MatterSlice<?> i : slices) {
+                            if (i != null) {
+                                c++;
+                            }
+                        }
+
+                        return c;
+                    }
+                };
+            }
+        };
+    }
+
+    private class SliceIterator implements Iterator<Map.Entry<Class<?>, MatterSlice<?>>> {
+        private final MatterSlice<?>[] snapshot;
+        private int next;
+        private MatterSlice<?> last;
+
+        private SliceIterator(MatterSlice<?>[] snapshot) {
+            this.snapshot = snapshot;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            while (from < snapshot.length && snapshot[from] == null) {
+                from++;
+            }
+
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < snapshot.length;
+        }
+
+        @Override
+        public Map.Entry<Class<?>, MatterSlice<?>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            last = snapshot[next];
+            next = advance(next + 1);
+            return new AbstractMap.SimpleImmutableEntry<>(last.getType(), last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            deleteSlice(last.getType());
+            last = null;
+        }
+    }
+}
@@ -34,10 +34,17 @@ import org.bukkit.block.data.BlockData;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 public class NBTWorld {
@@ -76,14 +83,22 @@ public class NBTWorld {
     private final KMap<Long, Long> lastUse;
     private final File worldFolder;
     private final ExecutorService saveQueue;
+    private final Set<Long> saving;
+    private int pendingSaves;
 
     public NBTWorld(File worldFolder) {
+        this(worldFolder, 1);
+    }
+
+    public NBTWorld(File worldFolder, int saveThreads) {
         this.worldFolder = worldFolder;
         this.loadedRegions = new KMap<>();
         this.lastUse = new KMap<>();
-        saveQueue = Executors.newSingleThreadExecutor(r -> {
+        this.saving = new HashSet<>();
+        AtomicInteger tc = new AtomicInteger(0);
+        saveQueue = Executors.newFixedThreadPool(Math.max(saveThreads, 1), r -> {
             Thread t = new Thread(r);
-            t.setName("Iris MCA Writer");
+            t.setName("Iris MCA Writer " + tc.incrementAndGet());
             t.setPriority(Thread.MIN_PRIORITY);
             return t;
         });
@@ -154,17 +169,79 @@ public class NBTWorld {
         }
     }
 
+    /**
+     * Queue every loaded region to be saved and wait until all queued saves, including the ones
+     * queued earlier, are written to disk
+     */
+    public void flush() {
+        for (Long i : loadedRegions.k()) {
+            queueSaveUnload(Cache.keyX(i), Cache.keyZ(i));
+        }
+
+        synchronized (saving) {
+            try {
+                while (pendingSaves > 0) {
+                    saving.wait(3000);
+                }
+            } catch (InterruptedException e) {
+                Iris.reportError(e);
+                e.printStackTrace();
+            }
+        }
+    }
+
     public void queueSaveUnload(int x, int z) {
-        saveQueue.submit(() -> doSaveUnload(x, z));
+        synchronized (saving) {
+            pendingSaves++;
+        }
+
+        saveQueue.submit(() -> {
+            try {
+                doSaveUnload(x, z);
+            } finally {
+                synchronized (saving) {
+                    pendingSaves--;
+                    saving.notifyAll();
+                }
+            }
+        });
     }
 
+    /**
+     * Unload a region and write it. Saves of the same region never run at the same time, a save
+     * that finds the region already unloaded (by a save that ran before it) does nothing.
+     *
+     * @param x the region x
+     * @param z the region z
+     */
     public void doSaveUnload(int x, int z) {
-        MCAFile f = getMCAOrNull(x, z);
-        if (f != null) {
-            unloadRegion(x, z);
+        long key = Cache.key(x, z);
+
+        synchronized (saving) {
+            try {
+                while (!saving.add(key)) {
+                    saving.wait();
+                }
+            } catch (InterruptedException e) {
+                Iris.reportError(e);
+                e.printStackTrace();
+                return;
+            }
         }
 
-        saveRegion(x, z, f);
+        try {
+            MCAFile f = getMCAOrNull(x, z);
+
+            if (f != null) {
+                unloadRegion(x, z);
+                saveRegion(x, z, f);
+            }
+        } finally {
+            synchronized (saving) {
+                saving.remove(key);
+                saving.notifyAll();
+            }
+        }
     }
 
     public void save() {
@@ -198,20 +275,35 @@ public class NBTWorld {
     }
 
     public void saveRegion(int x, int z) {
-        long k = Cache.key(x, z);
-        MCAFile mca = getMCAOrNull(x, z);
-        try {
-            MCAUtil.write(mca, getRegionFile(x, z), true);
-            Iris.debug("Saved Region " + C.GOLD + x + " " + z);
-        } catch (IOException e) {
-            Iris.error("Failed to save region " + getRegionFile(x, z).getPath());
-            e.printStackTrace();
-        }
+        saveRegion(x, z, getMCAOrNull(x, z));
     }
 
+    /**
+     * Write a region next to its file, sync it and move it over the file, so a region file
+     * that exists is always complete
+     *
+     * @param x   the region x
+     * @param z   the region z
+     * @param mca the region
+     */
     public void saveRegion(int x, int z, MCAFile mca) {
+        File file = getRegionFile(x, z);
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+
         try {
-            MCAUtil.write(mca, getRegionFile(x, z), true);
+            file.getParentFile().mkdirs();
+            temp.delete();
+
+            if (MCAUtil.write(mca, temp, true) <= 0) {
+                temp.delete();
+                return;
+            }
+
+            try (FileChannel c = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                c.force(true);
+            }
+
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             Iris.debug("Saved Region " + C.GOLD + x + " " + z);
         } catch (IOException e) {
             Iris.error("Failed to save region " + getRegionFile(x, z).getPath());
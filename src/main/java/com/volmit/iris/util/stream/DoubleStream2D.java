@@ -0,0 +1,116 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream;
+
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.util.interpolation.InterpolationMethod;
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.stream.primitive.*;
+import com.volmit.iris.util.stream.utility.DoubleCachedStream2D;
+
+/**
+ * A 2D stream of primitive doubles. Unlike a ProceduralStream of Double nothing is boxed between
+ * stages. Generic streams can be read through {@link #of(ProceduralStream)} and any double stream
+ * can be used as a generic stream through {@link #boxed()}.
+ */
+@FunctionalInterface
+public interface DoubleStream2D {
+    static DoubleStream2D of(NoiseProvider f) {
+        return f::noise;
+    }
+
+    static DoubleStream2D of(ProceduralStream<?> stream) {
+        if (stream instanceof DoubleBoxedStream b) {
+            return b.getStream();
+        }
+
+        return new DoubleStream2D() {
+            @Override
+            public double getDouble(double x, double z) {
+                return stream.getDouble(x, z);
+            }
+
+            @Override
+            public void fillTile(int x, int z, int w, int h, double[] target) {
+                stream.fillTileDouble(x, z, w, h, target);
+            }
+        };
+    }
+
+    double getDouble(double x, double z);
+
+    /**
+     * Evaluate a whole tile at once, indexed (z * w) + x
+     */
+    default void fillTile(int x, int z, int w, int h, double[] target) {
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                target[(j * w) + i] = getDouble(x + i, z + j);
+            }
+        }
+    }
+
+    default DoubleStream2D add(double a) {
+        return new DoubleAddingStream(this, (x, z) -> a);
+    }
+
+    default DoubleStream2D add(NoiseProvider a) {
+        return new DoubleAddingStream(this, a);
+    }
+
+    default DoubleStream2D multiply(double a) {
+        return new DoubleMultiplyingStream(this, a);
+    }
+
+    default DoubleStream2D max(double a) {
+        return new DoubleMaxingStream(this, a);
+    }
+
+    default DoubleStream2D min(double a) {
+        return new DoubleMinningStream(this, a);
+    }
+
+    default DoubleStream2D clamp(double min, double max) {
+        return new DoubleClampedStream(this, min, max);
+    }
+
+    default DoubleStream2D fit(double min, double max) {
+        return new DoubleFittedStream(this, 0, 1, min, max);
+    }
+
+    default DoubleStream2D fit(double inMin, double inMax, double min, double max) {
+        return new DoubleFittedStream(this, inMin, inMax, min, max);
+    }
+
+    default DoubleStream2D slope(int range) {
+        return new DoubleSlopeStream(this, range);
+    }
+
+    default DoubleStream2D interpolate(InterpolationMethod method, double radius) {
+        return new DoubleInterpolatingStream(this, method, radius);
+    }
+
+    default DoubleCachedStream2D cache2D(String name, Engine engine) {
+        return new DoubleCachedStream2D(name, engine, this);
+    }
+
+    default ProceduralStream<Double> boxed() {
+        return new DoubleBoxedStream(this);
+    }
+}
@@ -559,6 +559,41 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
 
     ProceduralStream<?> getSource();
 
+    /**
+     * Evaluate a whole tile at once. Streams that can share work between neighbouring points
+     * (caches, interpolators, arithmetic) override this, the default simply samples every point.
+     *
+     * @param x      the tile x
+     * @param z      the tile z
+     * @param w      the tile width
+     * @param h      the tile height
+     * @param target the output, indexed (z * w) + x, at least w * h long
+     */
+    default void fillTile(int x, int z, int w, int h, T[] target) {
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                target[(j * w) + i] = get(x + i, z + j);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #fillTile(int, int, int, int, Object[])} but reads the values as doubles
+     *
+     * @param x      the tile x
+     * @param z      the tile z
+     * @param w      the tile width
+     * @param h      the tile height
+     * @param target the output, indexed (z * w) + x, at least w * h long
+     */
+    default void fillTileDouble(int x, int z, int w, int h, double[] target) {
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                target[(j * w) + i] = getDouble(x + i, z + j);
+            }
+        }
+    }
+
     default void fillChunk(int x, int z, T[] c) {
         if (c.length != 256) {
             throw new RuntimeException("Not 256 Length for chunk get");
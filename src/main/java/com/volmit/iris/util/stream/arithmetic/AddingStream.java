@@ -54,6 +54,20 @@ public class AddingStream<T> extends BasicStream<T> {
         return fromDouble(add.apply(x, 0D, z) + getTypedSource().getDouble(x, z));
     }
 
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        double[] v = new double[w * h];
+        getTypedSource().fillTileDouble(x, z, w, h, v);
+
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                double xx = x + i;
+                double zz = z + j;
+                target[(j * w) + i] = fromDouble(add.apply(xx, 0D, zz) + v[(j * w) + i]);
+            }
+        }
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return fromDouble(add.apply(x, y, z) + getTypedSource().getDouble(x, y, z));
@@ -50,6 +50,18 @@ public class ClampedStream<T> extends BasicStream<T> implements ProceduralStream
         return fromDouble(clamp(getTypedSource().getDouble(x, z)));
     }
 
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        double[] v = new double[w * h];
+        getTypedSource().fillTileDouble(x, z, w, h, v);
+
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                target[(j * w) + i] = fromDouble(clamp(v[(j * w) + i]));
+            }
+        }
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return fromDouble(clamp(getTypedSource().getDouble(x, y, z)));
@@ -44,6 +44,11 @@ public class CoordinateBitShiftRightStream<T> extends BasicStream<T> implements
         return getTypedSource().get((int) x >> amount, (int) z >> amount);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble((int) x >> amount, (int) z >> amount);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return getTypedSource().get((int) x >> amount, (int) y >> amount, (int) z >> amount);
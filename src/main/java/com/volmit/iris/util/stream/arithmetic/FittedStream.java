@@ -58,6 +58,18 @@ public class FittedStream<T> extends BasicStream<T> implements ProceduralStream<
         return fromDouble(dlerp(getTypedSource().getDouble(x, z)));
     }
 
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        double[] v = new double[w * h];
+        getTypedSource().fillTileDouble(x, z, w, h, v);
+
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                target[(j * w) + i] = fromDouble(dlerp(v[(j * w) + i]));
+            }
+        }
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return fromDouble(dlerp(getTypedSource().getDouble(x, y, z)));
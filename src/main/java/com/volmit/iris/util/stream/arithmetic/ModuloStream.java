@@ -54,6 +54,20 @@ public class ModuloStream<T> extends BasicStream<T> {
         return fromDouble(getTypedSource().getDouble(x, z) % add.apply(x, 0D, z));
     }
 
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        double[] v = new double[w * h];
+        getTypedSource().fillTileDouble(x, z, w, h, v);
+
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                double xx = x + i;
+                double zz = z + j;
+                target[(j * w) + i] = fromDouble(v[(j * w) + i] % add.apply(xx, 0D, zz));
+            }
+        }
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return fromDouble(getTypedSource().getDouble(x, y, z) % add.apply(x, y, z));
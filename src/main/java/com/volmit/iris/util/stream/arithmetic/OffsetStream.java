@@ -48,6 +48,31 @@ public class OffsetStream<T> extends BasicStream<T> implements ProceduralStream<
         return getTypedSource().get(x + ox, z + oz);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(x + ox, z + oz);
+    }
+
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        if (ox == (int) ox && oz == (int) oz) {
+            getTypedSource().fillTile(x + (int) ox, z + (int) oz, w, h, target);
+            return;
+        }
+
+        ProceduralStream.super.fillTile(x, z, w, h, target);
+    }
+
+    @Override
+    public void fillTileDouble(int x, int z, int w, int h, double[] target) {
+        if (ox == (int) ox && oz == (int) oz) {
+            getTypedSource().fillTileDouble(x + (int) ox, z + (int) oz, w, h, target);
+            return;
+        }
+
+        ProceduralStream.super.fillTileDouble(x, z, w, h, target);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return getTypedSource().get(x + ox, y + oy, z + oz);
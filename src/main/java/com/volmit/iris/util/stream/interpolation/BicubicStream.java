@@ -68,6 +68,41 @@ public class BicubicStream<T> extends BasicStream<T> implements Interpolator<T>
         //@done
     }
 
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        TileLattice l = new TileLattice(getTypedSource(), x, z, w, h, rx, ry, 1, 2);
+
+        for (int j = 0; j < h; j++) {
+            int fz = Math.floorDiv(z + j, ry);
+            double pz = IrisInterpolation.rangeScale(0, 1, Math.round(fz * ry), Math.round((fz + 1) * ry), z + j);
+
+            for (int i = 0; i < w; i++) {
+                int fx = Math.floorDiv(x + i, rx);
+                double px = IrisInterpolation.rangeScale(0, 1, Math.round(fx * rx), Math.round((fx + 1) * rx), x + i);
+                //@builder
+                target[(j * w) + i] = fromDouble(IrisInterpolation.bicubic(
+                        l.get(fx - 1, fz - 1),
+                        l.get(fx - 1, fz),
+                        l.get(fx - 1, fz + 1),
+                        l.get(fx - 1, fz + 2),
+                        l.get(fx, fz - 1),
+                        l.get(fx, fz),
+                        l.get(fx, fz + 1),
+                        l.get(fx, fz + 2),
+                        l.get(fx + 1, fz - 1),
+                        l.get(fx + 1, fz),
+                        l.get(fx + 1, fz + 1),
+                        l.get(fx + 1, fz + 2),
+                        l.get(fx + 2, fz - 1),
+                        l.get(fx + 2, fz),
+                        l.get(fx + 2, fz + 1),
+                        l.get(fx + 2, fz + 2),
+                        px, pz));
+                //@done
+            }
+        }
+    }
+
     @Override
     public double toDouble(T t) {
         return getTypedSource().toDouble(t);
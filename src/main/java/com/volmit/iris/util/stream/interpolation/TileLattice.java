@@ -0,0 +1,50 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.interpolation;
+
+import com.volmit.iris.util.stream.ProceduralStream;
+
+/**
+ * The lattice samples an interpolator needs for a whole tile. Neighbouring points share most of
+ * their lattice corners so sampling them once per tile saves most source reads.
+ */
+class TileLattice {
+    private final int fx0;
+    private final int fz0;
+    private final int width;
+    private final double[] samples;
+
+    TileLattice(ProceduralStream<?> source, int x, int z, int w, int h, int rx, int ry, int before, int after) {
+        fx0 = Math.floorDiv(x, rx) - before;
+        fz0 = Math.floorDiv(z, ry) - before;
+        width = Math.floorDiv(x + w - 1, rx) + after - fx0 + 1;
+        int height = Math.floorDiv(z + h - 1, ry) + after - fz0 + 1;
+        samples = new double[width * height];
+
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                samples[(j * width) + i] = source.getDouble(Math.round((fx0 + i) * rx), Math.round((fz0 + j) * ry));
+            }
+        }
+    }
+
+    double get(int fx, int fz) {
+        return samples[((fz - fz0) * width) + fx - fx0];
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.primitive;
+
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.stream.DoubleStream2D;
+
+public class DoubleAddingStream implements DoubleStream2D {
+    private final DoubleStream2D source;
+    private final NoiseProvider add;
+
+    public DoubleAddingStream(DoubleStream2D source, NoiseProvider add) {
+        this.source = source;
+        this.add = add;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return source.getDouble(x, z) + add.noise(x, z);
+    }
+
+    @Override
+    public void fillTile(int x, int z, int w, int h, double[] target) {
+        source.fillTile(x, z, w, h, target);
+
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                target[(j * w) + i] += add.noise(x + i, z + j);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.primitive;
+
+import com.volmit.iris.util.stream.BasicStream;
+import com.volmit.iris.util.stream.DoubleStream2D;
+import com.volmit.iris.util.stream.ProceduralStream;
+import lombok.Getter;
+
+/**
+ * Exposes a double stream as a generic stream. Values are only boxed when read through get,
+ * getDouble passes the primitive straight through.
+ */
+public class DoubleBoxedStream extends BasicStream<Double> implements ProceduralStream<Double> {
+    @Getter
+    private final DoubleStream2D stream;
+
+    public DoubleBoxedStream(DoubleStream2D stream) {
+        super();
+        this.stream = stream;
+    }
+
+    @Override
+    public double toDouble(Double t) {
+        return t;
+    }
+
+    @Override
+    public Double fromDouble(double d) {
+        return d;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return stream.getDouble(x, z);
+    }
+
+    @Override
+    public void fillTileDouble(int x, int z, int w, int h, double[] target) {
+        stream.fillTile(x, z, w, h, target);
+    }
+
+    @Override
+    public Double get(double x, double z) {
+        return stream.getDouble(x, z);
+    }
+
+    @Override
+    public Double get(double x, double y, double z) {
+        return stream.getDouble(x, z);
+    }
+}
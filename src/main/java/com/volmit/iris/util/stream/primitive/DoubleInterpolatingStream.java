@@ -0,0 +1,40 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.primitive;
+
+import com.volmit.iris.util.interpolation.InterpolationMethod;
+import com.volmit.iris.util.interpolation.IrisInterpolation;
+import com.volmit.iris.util.stream.DoubleStream2D;
+
+public class DoubleInterpolatingStream implements DoubleStream2D {
+    private final DoubleStream2D source;
+    private final InterpolationMethod method;
+    private final double radius;
+
+    public DoubleInterpolatingStream(DoubleStream2D source, InterpolationMethod method, double radius) {
+        this.source = source;
+        this.method = method;
+        this.radius = radius;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return IrisInterpolation.getNoise(method, (int) Math.round(x), (int) Math.round(z), radius, source::getDouble);
+    }
+}
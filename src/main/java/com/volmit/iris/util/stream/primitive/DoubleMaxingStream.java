@@ -0,0 +1,45 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.primitive;
+
+import com.volmit.iris.util.stream.DoubleStream2D;
+
+public class DoubleMaxingStream implements DoubleStream2D {
+    private final DoubleStream2D source;
+    private final double max;
+
+    public DoubleMaxingStream(DoubleStream2D source, double max) {
+        this.source = source;
+        this.max = max;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return Math.max(source.getDouble(x, z), max);
+    }
+
+    @Override
+    public void fillTile(int x, int z, int w, int h, double[] target) {
+        source.fillTile(x, z, w, h, target);
+
+        for (int k = 0; k < w * h; k++) {
+            target[k] = Math.max(target[k], max);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.primitive;
+
+import com.volmit.iris.util.stream.DoubleStream2D;
+
+public class DoubleSlopeStream implements DoubleStream2D {
+    private final DoubleStream2D source;
+    private final int range;
+
+    public DoubleSlopeStream(DoubleStream2D source, int range) {
+        this.source = source;
+        this.range = range;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        double height = source.getDouble(x, z);
+        double dx = source.getDouble(x + range, z) - height;
+        double dy = source.getDouble(x, z + range) - height;
+
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
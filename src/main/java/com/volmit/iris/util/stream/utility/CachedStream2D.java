@@ -57,6 +57,11 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
         return cache.get((int) x, (int) z);
     }
 
+    @Override
+    public void fillTile(int x, int z, int w, int h, T[] target) {
+        cache.fill(x, z, w, h, target);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return stream.get(x, y, z);
@@ -0,0 +1,97 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.utility;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.MeteredCache;
+import com.volmit.iris.util.cache.WorldDoubleCache2D;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.stream.BasicStream;
+import com.volmit.iris.util.stream.DoubleStream2D;
+import com.volmit.iris.util.stream.ProceduralStream;
+
+/**
+ * Primitive variant of {@link CachedStream2D} built from a {@link DoubleStream2D}. Cells are kept
+ * as raw doubles so reads through {@link #getDouble(double, double)} never box.
+ */
+public class DoubleCachedStream2D extends BasicStream<Double> implements ProceduralStream<Double>, MeteredCache {
+    private final DoubleStream2D stream;
+    private final WorldDoubleCache2D cache;
+    private final Engine engine;
+
+    public DoubleCachedStream2D(String name, Engine engine, DoubleStream2D stream) {
+        super();
+        this.stream = stream;
+        this.engine = engine;
+        cache = new WorldDoubleCache2D(stream::getDouble);
+        Iris.service(PreservationSVC.class).registerCache(this);
+    }
+
+    @Override
+    public double toDouble(Double t) {
+        return t;
+    }
+
+    @Override
+    public Double fromDouble(double d) {
+        return d;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return cache.get((int) x, (int) z);
+    }
+
+    @Override
+    public Double get(double x, double z) {
+        return cache.get((int) x, (int) z);
+    }
+
+    @Override
+    public void fillTileDouble(int x, int z, int w, int h, double[] target) {
+        cache.fill(x, z, w, h, target);
+    }
+
+    @Override
+    public Double get(double x, double y, double z) {
+        return stream.getDouble(x, z);
+    }
+
+    @Override
+    public long getSize() {
+        return cache.getSize();
+    }
+
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return null;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return 256 * 32;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return engine.isClosed();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.pregenerator;
+
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.math.Position2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kills a pregen process halfway and resumes it from its journal. The pregen is simulated by a
+ * fake world that saves one chunk bitmap per region the way region files are saved (temp file,
+ * fsync, atomic move), so the test checks the journal against what really made it to disk.
+ */
+public class PregenJournalTest {
+    private static final PregenTask TASK = PregenTask.builder().center(new Position2(0, 0)).width(1).height(1).build();
+    private static final int CHECKPOINT = 256;
+
+    /**
+     * Entry point of the process that gets killed
+     *
+     * @param args the world folder
+     */
+    public static void main(String[] args) throws IOException {
+        generate(new File(args[0]), TASK, 1, System.out);
+    }
+
+    /**
+     * Run the fake pregen, skipping everything the journal of the task already has
+     *
+     * @return the amount of chunks generated
+     */
+    private static int generate(File world, PregenTask task, long delay, PrintStream progress) throws IOException {
+        FakeWorld w = new FakeWorld(new File(world, "region"));
+        PregenJournal journal = new PregenJournal(PregenJournal.file(world, task));
+        int[] generated = {0};
+
+        try {
+            task.iterateRegions((rx, rz) -> {
+                if (journal.isRegionDone(rx, rz)) {
+                    return;
+                }
+
+                PregenTask.iterateRegion(rx, rz, (x, z) -> {
+                    if (journal.isChunkDone(x, z)) {
+                        return;
+                    }
+
+                    if (delay > 0) {
+                        try {
+                            Thread.sleep(delay);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+
+                    w.generate(x, z);
+                    journal.markChunk(x, z);
+
+                    if (++generated[0] % CHECKPOINT == 0) {
+                        journal.checkpoint(w::save);
+                        progress.println("checkpoint " + generated[0]);
+                        progress.flush();
+                    }
+                });
+                journal.markRegion(rx, rz);
+            });
+            journal.checkpoint(w::save);
+        } finally {
+            journal.close();
+        }
+
+        return generated[0];
+    }
+
+    private static int count(PregenTask task, PregenJournal journal) {
+        int[] c = {0};
+        task.iterateAllChunks((x, z) -> c[0] += journal.isChunkDone(x, z) ? 1 : 0);
+        return c[0];
+    }
+
+    @Test
+    public void resumesAfterKill(@TempDir File world) throws Exception {
+        int[] total = {0};
+        TASK.iterateRegions((x, z) -> total[0] += 1024);
+        Process p = new ProcessBuilder(new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-cp", System.getProperty("java.class.path"), PregenJournalTest.class.getName(), world.getPath())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            int checkpoints = 0;
+            String line;
+
+            while (checkpoints < 3 && (line = in.readLine()) != null) {
+                if (line.startsWith("checkpoint")) {
+                    checkpoints++;
+                }
+            }
+
+            assertEquals(3, checkpoints, "the pregen process ended before it was killed");
+            Thread.sleep(50);
+        } finally {
+            p.destroyForcibly();
+        }
+
+        assertTrue(p.waitFor(30, TimeUnit.SECONDS));
+        File file = PregenJournal.file(world, TASK);
+        PregenJournal killed = PregenJournal.snapshot(file);
+        FakeWorld disk = new FakeWorld(new File(world, "region"));
+        int journaled = count(TASK, killed);
+        assertTrue(journaled >= 3 * CHECKPOINT && journaled < total[0], "journaled " + journaled + " of " + total[0]);
+        TASK.iterateAllChunks((x, z) -> {
+            if (killed.isChunkDone(x, z)) {
+                assertTrue(disk.has(x, z), "chunk " + x + "," + z + " is journaled but not saved");
+            }
+        });
+
+        assertEquals(total[0] - journaled, generate(world, TASK, 0, new PrintStream(OutputStream.nullOutputStream())));
+        PregenJournal resumed = PregenJournal.snapshot(file);
+        FakeWorld done = new FakeWorld(new File(world, "region"));
+        TASK.iterateRegions((x, z) -> assertTrue(resumed.isRegionDone(x, z)));
+        TASK.iterateAllChunks((x, z) -> assertTrue(done.has(x, z), "chunk " + x + "," + z + " was never generated"));
+        assertEquals(0, generate(world, TASK, 0, new PrintStream(OutputStream.nullOutputStream())));
+    }
+
+    @Test
+    public void otherTaskStartsOver(@TempDir File world) throws Exception {
+        PregenTask wider = PregenTask.builder().center(new Position2(0, 0)).width(2).height(2).build();
+        PregenTask moved = PregenTask.builder().center(new Position2(4, 0)).width(1).height(1).build();
+        assertEquals(PregenJournal.file(world, TASK), PregenJournal.file(world, PregenTask.builder().build()));
+        assertNotEquals(PregenJournal.file(world, TASK), PregenJournal.file(world, wider));
+        assertNotEquals(PregenJournal.file(world, TASK), PregenJournal.file(world, moved));
+
+        generate(world, TASK, 0, new PrintStream(OutputStream.nullOutputStream()));
+        PregenJournal other = PregenJournal.snapshot(PregenJournal.file(world, wider));
+        assertEquals(0, count(wider, other));
+    }
+
+    /**
+     * Keeps the generated chunks of each region in memory and saves them like region files
+     */
+    private static class FakeWorld {
+        private final File folder;
+        private final KMap<Long, long[]> regions = new KMap<>();
+
+        private FakeWorld(File folder) {
+            this.folder = folder;
+            folder.mkdirs();
+        }
+
+        private File file(long region) {
+            return new File(folder, "r." + Cache.keyX(region) + "." + Cache.keyZ(region) + ".bin");
+        }
+
+        private long[] region(int x, int z) {
+            return regions.computeIfAbsent(Cache.key(x >> 5, z >> 5), (k) -> {
+                long[] b = new long[16];
+                File f = file(k);
+
+                if (f.exists()) {
+                    try (DataInputStream in = new DataInputStream(new FileInputStream(f))) {
+                        for (int i = 0; i < 16; i++) {
+                            b[i] = in.readLong();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                return b;
+            });
+        }
+
+        private synchronized void generate(int x, int z) {
+            int i = ((z & 31) << 5) | (x & 31);
+            region(x, z)[i >> 6] |= 1L << (i & 63);
+        }
+
+        private synchronized boolean has(int x, int z) {
+            int i = ((z & 31) << 5) | (x & 31);
+            return (region(x, z)[i >> 6] & (1L << (i & 63))) != 0;
+        }
+
+        private synchronized void save() {
+            for (Long i : regions.k()) {
+                File f = file(i);
+                File tmp = new File(folder, f.getName() + ".tmp");
+
+                try (FileOutputStream fos = new FileOutputStream(tmp); DataOutputStream out = new DataOutputStream(fos)) {
+                    for (long j : regions.get(i)) {
+                        out.writeLong(j);
+                    }
+
+                    out.flush();
+                    fos.getFD().sync();
+                    Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.mantle;
+
+import com.volmit.iris.engine.object.IrisPosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the span rasterizer against the position set algorithms the mantle writer used before
+ * it, on random shapes. The legacy algorithms below are copied from the old MantleWriter.
+ */
+public class ShapeRasterizerTest {
+    private static final long SEED = 42;
+
+    private static Set<IrisPosition> rasterize(Consumer<ShapeRasterizer.SpanConsumer> shape) {
+        Set<IrisPosition> set = new HashSet<>();
+        shape.accept((x, z, minY, maxY) -> {
+            assertTrue(minY <= maxY, "empty span at " + x + "," + z);
+
+            for (int y = minY; y <= maxY; y++) {
+                assertTrue(set.add(new IrisPosition(x, y, z)), "overlapping spans at " + x + "," + y + "," + z);
+            }
+        });
+        return set;
+    }
+
+    @Test
+    public void elipsoidsMatchLegacy() {
+        Random r = new Random(SEED);
+
+        for (int i = 0; i < 3000; i++) {
+            double rx = r.nextDouble() * 12;
+            double ry = r.nextDouble() * 12;
+            double rz = r.nextDouble() * 12;
+
+            if (i % 7 == 0) {
+                rx = ry = rz = r.nextInt(10);
+            }
+
+            int cx = r.nextInt(200) - 100;
+            int cy = r.nextInt(200);
+            int cz = r.nextInt(200) - 100;
+            boolean fill = r.nextBoolean();
+            double frx = rx, fry = ry, frz = rz;
+            assertEquals(legacyElipsoid(cx, cy, cz, rx, ry, rz, fill),
+                    rasterize((s) -> ShapeRasterizer.elipsoid(cx, cy, cz, frx, fry, frz, fill, s)),
+                    "elipsoid " + cx + "," + cy + "," + cz + " r " + rx + "," + ry + "," + rz + " fill " + fill);
+        }
+    }
+
+    @Test
+    public void linesMatchLegacy() {
+        Random r = new Random(SEED);
+
+        for (int i = 0; i < 600; i++) {
+            List<IrisPosition> points = new ArrayList<>();
+            int x = r.nextInt(100) - 50;
+            int y = r.nextInt(200);
+            int z = r.nextInt(100) - 50;
+
+            for (int j = 1 + r.nextInt(8); j > 0; j--) {
+                points.add(new IrisPosition(x, y, z));
+                x += r.nextInt(41) - 20;
+                y += r.nextInt(21) - 10;
+                z += r.nextInt(41) - 20;
+            }
+
+            double radius = i % 5 == 0 ? r.nextInt(7) : r.nextDouble() * 7;
+            boolean fill = r.nextBoolean();
+            assertEquals(legacyLine(points, radius, fill),
+                    rasterize((s) -> ShapeRasterizer.line(points, radius, fill, s)),
+                    "line " + points + " r " + radius + " fill " + fill);
+        }
+    }
+
+    private static double lengthSq(double x, double y, double z) {
+        return (x * x) + (y * y) + (z * z);
+    }
+
+    private static double hypot(double... pars) {
+        double sum = 0;
+
+        for (double d : pars) {
+            sum += Math.pow(d, 2);
+        }
+
+        return Math.sqrt(sum);
+    }
+
+    private static Set<IrisPosition> legacyElipsoid(int cx, int cy, int cz, double rx, double ry, double rz, boolean fill) {
+        Set<IrisPosition> set = new HashSet<>();
+        rx += 0.5;
+        ry += 0.5;
+        rz += 0.5;
+        final double invRadiusX = 1 / rx;
+        final double invRadiusY = 1 / ry;
+        final double invRadiusZ = 1 / rz;
+        final int ceilRadiusX = (int) Math.ceil(rx);
+        final int ceilRadiusY = (int) Math.ceil(ry);
+        final int ceilRadiusZ = (int) Math.ceil(rz);
+        double nextXn = 0;
+
+        forX:
+        for (int x = 0; x <= ceilRadiusX; ++x) {
+            final double xn = nextXn;
+            nextXn = (x + 1) * invRadiusX;
+            double nextYn = 0;
+            forY:
+            for (int y = 0; y <= ceilRadiusY; ++y) {
+                final double yn = nextYn;
+                nextYn = (y + 1) * invRadiusY;
+                double nextZn = 0;
+                for (int z = 0; z <= ceilRadiusZ; ++z) {
+                    final double zn = nextZn;
+                    nextZn = (z + 1) * invRadiusZ;
+
+                    double distanceSq = lengthSq(xn, yn, zn);
+                    if (distanceSq > 1) {
+                        if (z == 0) {
+                            if (y == 0) {
+                                break forX;
+                            }
+                            break forY;
+                        }
+                        break;
+                    }
+
+                    if (!fill) {
+                        if (lengthSq(nextXn, yn, zn) <= 1 && lengthSq(xn, nextYn, zn) <= 1 && lengthSq(xn, yn, nextZn) <= 1) {
+                            continue;
+                        }
+                    }
+
+                    for (int sx = -1; sx <= 1; sx += 2) {
+                        for (int sy = -1; sy <= 1; sy += 2) {
+                            for (int sz = -1; sz <= 1; sz += 2) {
+                                set.add(new IrisPosition(sx * x + cx, sy * y + cy, sz * z + cz));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return set;
+    }
+
+    private static Set<IrisPosition> legacyLine(List<IrisPosition> vectors, double radius, boolean filled) {
+        Set<IrisPosition> vset = new HashSet<>();
+
+        for (int i = 0; vectors.size() != 0 && i < vectors.size() - 1; i++) {
+            IrisPosition pos1 = vectors.get(i);
+            IrisPosition pos2 = vectors.get(i + 1);
+            int x1 = pos1.getX();
+            int y1 = pos1.getY();
+            int z1 = pos1.getZ();
+            int x2 = pos2.getX();
+            int y2 = pos2.getY();
+            int z2 = pos2.getZ();
+            int tipx = x1;
+            int tipy = y1;
+            int tipz = z1;
+            int dx = Math.abs(x2 - x1);
+            int dy = Math.abs(y2 - y1);
+            int dz = Math.abs(z2 - z1);
+
+            if (dx + dy + dz == 0) {
+                vset.add(new IrisPosition(tipx, tipy, tipz));
+                continue;
+            }
+
+            int dMax = Math.max(Math.max(dx, dy), dz);
+            if (dMax == dx) {
+                for (int domstep = 0; domstep <= dx; domstep++) {
+                    tipx = x1 + domstep * (x2 - x1 > 0 ? 1 : -1);
+                    tipy = (int) Math.round(y1 + domstep * ((double) dy) / ((double) dx) * (y2 - y1 > 0 ? 1 : -1));
+                    tipz = (int) Math.round(z1 + domstep * ((double) dz) / ((double) dx) * (z2 - z1 > 0 ? 1 : -1));
+
+                    vset.add(new IrisPosition(tipx, tipy, tipz));
+                }
+            } else if (dMax == dy) {
+                for (int domstep = 0; domstep <= dy; domstep++) {
+                    tipy = y1 + domstep * (y2 - y1 > 0 ? 1 : -1);
+                    tipx = (int) Math.round(x1 + domstep * ((double) dx) / ((double) dy) * (x2 - x1 > 0 ? 1 : -1));
+                    tipz = (int) Math.round(z1 + domstep * ((double) dz) / ((double) dy) * (z2 - z1 > 0 ? 1 : -1));
+
+                    vset.add(new IrisPosition(tipx, tipy, tipz));
+                }
+            } else {
+                for (int domstep = 0; domstep <= dz; domstep++) {
+                    tipz = z1 + domstep * (z2 - z1 > 0 ? 1 : -1);
+                    tipy = (int) Math.round(y1 + domstep * ((double) dy) / ((double) dz) * (y2 - y1 > 0 ? 1 : -1));
+                    tipx = (int) Math.round(x1 + domstep * ((double) dx) / ((double) dz) * (x2 - x1 > 0 ? 1 : -1));
+
+                    vset.add(new IrisPosition(tipx, tipy, tipz));
+                }
+            }
+        }
+
+        Set<IrisPosition> ballooned = new HashSet<>();
+        int ceilrad = (int) Math.ceil(radius);
+
+        for (IrisPosition v : vset) {
+            for (int x = v.getX() - ceilrad; x <= v.getX() + ceilrad; x++) {
+                for (int y = v.getY() - ceilrad; y <= v.getY() + ceilrad; y++) {
+                    for (int z = v.getZ() - ceilrad; z <= v.getZ() + ceilrad; z++) {
+                        if (hypot(x - v.getX(), y - v.getY(), z - v.getZ()) <= radius) {
+                            ballooned.add(new IrisPosition(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+
+        if (filled) {
+            return ballooned;
+        }
+
+        Set<IrisPosition> hollowed = new HashSet<>();
+
+        for (IrisPosition v : ballooned) {
+            double x = v.getX();
+            double y = v.getY();
+            double z = v.getZ();
+            if (!(ballooned.contains(new IrisPosition(x + 1, y, z))
+                    && ballooned.contains(new IrisPosition(x - 1, y, z))
+                    && ballooned.contains(new IrisPosition(x, y + 1, z))
+                    && ballooned.contains(new IrisPosition(x, y - 1, z))
+                    && ballooned.contains(new IrisPosition(x, y, z + 1))
+                    && ballooned.contains(new IrisPosition(x, y, z - 1)))) {
+                hollowed.add(v);
+            }
+        }
+
+        return hollowed;
+    }
+}
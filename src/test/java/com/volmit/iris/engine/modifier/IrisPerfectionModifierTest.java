@@ -0,0 +1,210 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.modifier;
+
+import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.ArrayHunk;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.block.data.Bisected;
+import org.bukkit.block.data.BlockData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs perfection on the same random chunks on one thread and on many, and checks that every
+ * block and every per slice counter comes out identical. Block data comes from a minimal fake
+ * server, only the material of a block matters to perfection.
+ */
+public class IrisPerfectionModifierTest {
+    private static final int HEIGHT = 384;
+    private static final Material[] DECORANTS = {
+            Material.GRASS, Material.FERN, Material.DANDELION, Material.POPPY, Material.DEAD_BUSH, Material.TALL_GRASS
+    };
+
+    @BeforeAll
+    public static void server() {
+        if (Bukkit.getServer() != null) {
+            return;
+        }
+
+        Bukkit.setServer((Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class[]{Server.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getLogger":
+                    return Logger.getLogger("Iris");
+                case "getName":
+                case "getVersion":
+                case "getBukkitVersion":
+                    return "test";
+                case "createBlockData":
+                    if (args[0] instanceof Material m) {
+                        return block(m);
+                    }
+
+                    Material match = Material.matchMaterial(((String) args[0]).split("\\Q[\\E")[0]);
+
+                    if (match == null) {
+                        throw new IllegalArgumentException("Unknown block " + args[0]);
+                    }
+
+                    return block(match);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        }));
+    }
+
+    /**
+     * A block data that only knows its material. Double plants are {@link Bisected}.
+     */
+    private static BlockData block(Material m) {
+        Class<?>[] types = m == Material.TALL_GRASS ? new Class[]{Bisected.class} : new Class[]{BlockData.class};
+        return (BlockData) Proxy.newProxyInstance(BlockData.class.getClassLoader(), types, (proxy, method, args) -> switch (method.getName()) {
+            case "getMaterial" -> m;
+            case "clone" -> block(m);
+            case "getAsString", "toString" -> m.getKey().toString();
+            case "hashCode" -> m.hashCode();
+            case "equals" -> args[0] instanceof BlockData b && b.getMaterial() == m;
+            case "matches" -> args[0] instanceof BlockData b && b.getMaterial() == m;
+            default -> method.getReturnType() == boolean.class ? false : null;
+        });
+    }
+
+    /**
+     * Terrain with caves, water and decorants, a good part of them on blocks that cannot hold
+     * them, floating or stacked so columns need more than one scan
+     */
+    private static Hunk<BlockData> chunk(long seed) {
+        Random r = new Random(seed);
+        Hunk<BlockData> h = new ArrayHunk<>(16, HEIGHT, 16);
+        BlockData air = block(Material.AIR);
+        BlockData caveAir = block(Material.CAVE_AIR);
+        BlockData stone = block(Material.STONE);
+        BlockData dirt = block(Material.DIRT);
+        BlockData grass = block(Material.GRASS_BLOCK);
+        BlockData sand = block(Material.SAND);
+        BlockData water = block(Material.WATER);
+
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int top = 50 + r.nextInt(40);
+
+                for (int y = 0; y < HEIGHT; y++) {
+                    h.set(x, y, z, y < top - 3 ? stone : y < top ? dirt : y == top ? (r.nextInt(4) == 0 ? sand : grass) : y <= 62 ? water : air);
+                }
+
+                for (int c = r.nextInt(4); c > 0; c--) {
+                    int floor = 5 + r.nextInt(Math.max(1, top - 10));
+                    int ceiling = Math.min(top - 1, floor + 1 + r.nextInt(8));
+
+                    for (int y = floor; y < ceiling; y++) {
+                        h.set(x, y, z, caveAir);
+                    }
+
+                    if (r.nextBoolean()) {
+                        h.set(x, floor, z, decorant(r));
+                    }
+                }
+
+                int y = top + 1;
+
+                for (int d = r.nextInt(4); d > 0 && y < HEIGHT - 1; d--) {
+                    BlockData b = decorant(r);
+                    h.set(x, y++, z, b);
+
+                    if (b.getMaterial() == Material.TALL_GRASS) {
+                        h.set(x, y++, z, block(Material.TALL_GRASS));
+                    }
+                }
+
+                if (r.nextInt(5) == 0) {
+                    h.set(x, top + 2 + r.nextInt(20), z, decorant(r));
+                }
+            }
+        }
+
+        return h;
+    }
+
+    private static BlockData decorant(Random r) {
+        return block(DECORANTS[r.nextInt(DECORANTS.length)]);
+    }
+
+    private static Hunk<BlockData> copy(Hunk<BlockData> h) {
+        Hunk<BlockData> c = new ArrayHunk<>(h.getWidth(), h.getHeight(), h.getDepth());
+        h.iterateSync((x, y, z, b) -> c.set(x, y, z, b));
+        return c;
+    }
+
+    @Test
+    public void multicoreMatchesSingleCore() {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        int removed = 0;
+
+        try {
+            for (int seed = 0; seed < 40; seed++) {
+                Hunk<BlockData> chunk = chunk(seed);
+                Hunk<BlockData> single = copy(chunk);
+                int[] singleScans = new int[16];
+                int[] singleRemovals = new int[16];
+                BurstExecutor sync = new BurstExecutor(pool, 16);
+                sync.setMulticore(false);
+                IrisPerfectionModifier.perfect(single, sync, singleScans, singleRemovals);
+                removed += Arrays.stream(singleRemovals).sum();
+
+                for (int run = 0; run < 10; run++) {
+                    Hunk<BlockData> multi = copy(chunk);
+                    int[] multiScans = new int[16];
+                    int[] multiRemovals = new int[16];
+                    IrisPerfectionModifier.perfect(multi, new BurstExecutor(pool, 16), multiScans, multiRemovals);
+                    String at = "seed " + seed + " run " + run;
+                    assertArrayEquals(singleScans, multiScans, at + " scans");
+                    assertArrayEquals(singleRemovals, multiRemovals, at + " removals");
+
+                    for (int x = 0; x < 16; x++) {
+                        for (int y = 0; y < HEIGHT; y++) {
+                            for (int z = 0; z < 16; z++) {
+                                assertEquals(single.get(x, y, z), multi.get(x, y, z), at + " block " + x + "," + y + "," + z);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(removed > 0, "no chunk had anything to remove");
+    }
+}